@@ -0,0 +1,102 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.PlayerId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup time to restore the researches of every player, restoreResearches one player at a time against loadAll.
+ *
+ * @author Grégory Van den Borre
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class ResearchBulkLoadBenchmark {
+
+    @Param({"1000000"})
+    public int players;
+
+    @Param({"20"})
+    public int researches;
+
+    private Map<PlayerId, int[]> ids;
+
+    private Map<PlayerId, List<ResearchId>> lists;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        this.ids = new HashMap<>();
+        this.lists = new HashMap<>();
+        for (int p = 0; p < this.players; p++) {
+            int[] values = new int[this.researches];
+            List<ResearchId> list = new ArrayList<>(this.researches);
+            for (int r = 0; r < this.researches; r++) {
+                values[r] = random.nextInt(300);
+                list.add(ResearchId.valueOf(values[r]));
+            }
+            this.ids.put(PlayerId.valueOf(p), values);
+            this.lists.put(PlayerId.valueOf(p), list);
+        }
+    }
+
+    @Benchmark
+    public ResearchManager restore() {
+        ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+        this.lists.forEach(manager::restoreResearches);
+        return manager;
+    }
+
+    @Benchmark
+    public ResearchManager loadAll() {
+        ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+        manager.loadAll(this.ids, ForkJoinPool.commonPool());
+        return manager;
+    }
+}
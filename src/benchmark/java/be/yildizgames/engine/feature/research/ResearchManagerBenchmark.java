@@ -0,0 +1,140 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.BonusId;
+import be.yildizgames.common.model.PlayerId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manager hot paths on a populated manager, each player has completed about half of a linear research tree.
+ *
+ * @author Grégory Van den Borre
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResearchManagerBenchmark {
+
+    @Param({"1000", "100000"})
+    public int players;
+
+    @Param({"100", "1000"})
+    public int researches;
+
+    private ResearchManager manager;
+
+    private PlayerId[] playerIds;
+
+    private ResearchId[] researchIds;
+
+    private SplittableRandom random;
+
+    /**
+     * Cursor for addResearch, walks the player x research grid so each call adds a new research until the grid is full.
+     */
+    private long addCursor;
+
+    @Setup(Level.Trial)
+    public void setupCatalog() {
+        this.researchIds = new ResearchId[this.researches];
+        for (int i = 0; i < this.researches; i++) {
+            this.researchIds[i] = ResearchId.valueOf(i);
+            if (i == 0) {
+                Research.createAndRegister(this.researchIds[i], 10, BonusId.valueOf(1));
+            } else {
+                Research.createAndRegister(this.researchIds[i], 10, BonusId.valueOf(1), this.researchIds[i - 1]);
+            }
+        }
+        this.playerIds = new PlayerId[this.players];
+        for (int i = 0; i < this.players; i++) {
+            this.playerIds[i] = PlayerId.valueOf(i);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setupManager() {
+        this.manager = ResearchManager.create(ResearchSet::bitSet);
+        List<ResearchId> done = Arrays.asList(this.researchIds).subList(0, this.researches / 2);
+        for (PlayerId player : this.playerIds) {
+            this.manager.restoreResearches(player, done);
+        }
+        this.random = new SplittableRandom(42);
+        this.addCursor = 0;
+    }
+
+    @Benchmark
+    public ResearchManager addResearch() {
+        long cursor = this.addCursor++;
+        int half = this.researches / 2;
+        int player = (int) (cursor % this.players);
+        int research = half + (int) ((cursor / this.players) % (this.researches - half));
+        this.manager.addResearch(this.researchIds[research], this.playerIds[player]);
+        return this.manager;
+    }
+
+    @Benchmark
+    public boolean hasResearch() {
+        return this.manager.hasResearch(this.randomPlayer(), this.randomResearch());
+    }
+
+    @Benchmark
+    public ResearchManager.ResearchState getResearchState() {
+        return this.manager.getResearchState(this.randomPlayer(), this.randomResearch());
+    }
+
+    @Benchmark
+    public Set<ResearchId> getResearchList() {
+        return this.manager.getResearchList(this.randomPlayer());
+    }
+
+    private PlayerId randomPlayer() {
+        return this.playerIds[this.random.nextInt(this.players)];
+    }
+
+    private ResearchId randomResearch() {
+        return this.researchIds[this.random.nextInt(this.researches)];
+    }
+}
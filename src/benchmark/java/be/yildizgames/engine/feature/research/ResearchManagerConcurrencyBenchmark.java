@@ -0,0 +1,134 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.BonusId;
+import be.yildizgames.common.model.PlayerId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a mixed read/write workload on the research manager, every thread works on random players.
+ *
+ * @author Grégory Van den Borre
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResearchManagerConcurrencyBenchmark {
+
+    private static final int PLAYERS = 10_000;
+
+    private static final int RESEARCHES = 300;
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+
+        final ResearchManager manager = ResearchManager.getInstance();
+
+        final PlayerId[] players = new PlayerId[PLAYERS];
+
+        final ResearchId[] researches = new ResearchId[RESEARCHES];
+
+        @Setup(Level.Trial)
+        public void setup() {
+            for (int i = 0; i < RESEARCHES; i++) {
+                this.researches[i] = ResearchId.valueOf(i);
+                if (i == 0) {
+                    Research.createAndRegister(this.researches[i], 10, BonusId.valueOf(1));
+                } else {
+                    Research.createAndRegister(this.researches[i], 10, BonusId.valueOf(1), this.researches[i - 1]);
+                }
+            }
+            for (int i = 0; i < PLAYERS; i++) {
+                this.players[i] = PlayerId.valueOf(i);
+                for (int r = 0; r < RESEARCHES / 2; r++) {
+                    this.manager.addResearch(this.researches[r], this.players[i]);
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Worker {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        PlayerId player(Catalog catalog) {
+            return catalog.players[this.random.nextInt(PLAYERS)];
+        }
+
+        ResearchId research(Catalog catalog) {
+            return catalog.researches[this.random.nextInt(RESEARCHES)];
+        }
+    }
+
+    private static Object mixed(Catalog catalog, Worker worker) {
+        PlayerId player = worker.player(catalog);
+        ResearchId research = worker.research(catalog);
+        int operation = research.value & 0xF;
+        if (operation == 0) {
+            catalog.manager.addResearch(research, player);
+            return player;
+        }
+        if (operation < 8) {
+            return catalog.manager.hasResearch(player, research);
+        }
+        return catalog.manager.getResearchState(player, research);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object mixed1Thread(Catalog catalog, Worker worker) {
+        return mixed(catalog, worker);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object mixed8Threads(Catalog catalog, Worker worker) {
+        return mixed(catalog, worker);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Object mixed32Threads(Catalog catalog, Worker worker) {
+        return mixed(catalog, worker);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.BonusId;
+import be.yildizgames.common.model.PlayerId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the research state read path, with and without the state cache, run with -prof gc to check the allocation per call.
+ *
+ * @author Grégory Van den Borre
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResearchStateBenchmark {
+
+    private final ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+
+    private final PlayerId player = PlayerId.valueOf(1);
+
+    private final PlayerId unknownPlayer = PlayerId.valueOf(2);
+
+    private final ResearchId root = ResearchId.valueOf(1);
+
+    private final ResearchId child = ResearchId.valueOf(2);
+
+    private final ResearchId locked = ResearchId.valueOf(3);
+
+    private ResearchStateCache cache;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Research.createAndRegister(this.root, 10, BonusId.valueOf(1));
+        Research.createAndRegister(this.child, 10, BonusId.valueOf(1), this.root);
+        Research.createAndRegister(this.locked, 10, BonusId.valueOf(1), this.child);
+        this.manager.addResearch(this.root, this.player);
+        this.cache = ResearchStateCache.create(this.manager);
+    }
+
+    @Benchmark
+    public ResearchManager.ResearchState done() {
+        return this.manager.getResearchState(this.player, this.root);
+    }
+
+    @Benchmark
+    public ResearchManager.ResearchState available() {
+        return this.manager.getResearchState(this.player, this.child);
+    }
+
+    @Benchmark
+    public ResearchManager.ResearchState unavailable() {
+        return this.manager.getResearchState(this.player, this.locked);
+    }
+
+    @Benchmark
+    public ResearchManager.ResearchState unknownPlayer() {
+        return this.manager.getResearchState(this.unknownPlayer, this.child);
+    }
+
+    @Benchmark
+    public ResearchManager.ResearchState cachedUnavailable() {
+        return this.cache.getResearchState(this.player, this.locked);
+    }
+}
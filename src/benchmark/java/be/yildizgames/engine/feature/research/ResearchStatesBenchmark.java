@@ -0,0 +1,112 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.BonusId;
+import be.yildizgames.common.model.PlayerId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State of a whole tech tree for a player, bulk evaluation against a getResearchState loop.
+ * Every research has up to 3 prerequisites among the previous ones, the player has done a third of the researches.
+ *
+ * @author Grégory Van den Borre
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResearchStatesBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int researches;
+
+    private ResearchManager manager;
+
+    private ResearchId[] ids;
+
+    private byte[] states;
+
+    private final PlayerId player = PlayerId.valueOf(1);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        ResearchCatalog.Builder builder = ResearchCatalog.builder();
+        this.ids = new ResearchId[this.researches];
+        for (int i = 0; i < this.researches; i++) {
+            this.ids[i] = ResearchId.valueOf(i);
+            List<ResearchId> prerequisites = new ArrayList<>();
+            for (int p = 0; i > 0 && p < 3; p++) {
+                ResearchId prerequisite = this.ids[random.nextInt(i)];
+                if (!prerequisites.contains(prerequisite)) {
+                    prerequisites.add(prerequisite);
+                }
+            }
+            builder.add(Research.create(this.ids[i], 10, BonusId.valueOf(1), prerequisites));
+        }
+        this.manager = ResearchManager.builder().catalog(builder.build()).build();
+        List<ResearchId> done = new ArrayList<>();
+        for (ResearchId id : this.ids) {
+            if (random.nextInt(3) == 0) {
+                done.add(id);
+            }
+        }
+        this.manager.restoreResearches(this.player, done);
+        this.states = new byte[this.researches];
+    }
+
+    @Benchmark
+    public byte[] bulk() {
+        this.manager.getResearchStates(this.player, this.states);
+        return this.states;
+    }
+
+    @Benchmark
+    public byte[] loop() {
+        for (int i = 0; i < this.ids.length; i++) {
+            this.states[i] = (byte) this.manager.getResearchState(this.player, this.ids[i]).ordinal();
+        }
+        return this.states;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.persistence;
+
+import be.yildizgames.common.model.PlayerId;
+import be.yildizgames.engine.feature.research.ResearchId;
+import be.yildizgames.engine.feature.research.ResearchManager;
+import be.yildizgames.engine.feature.research.ResearchSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup time to restore the researches of all players from a snapshot and a journal tail.
+ *
+ * @author Grégory Van den Borre
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ResearchJournalReplayBenchmark {
+
+    @Param({"1000000"})
+    public int players;
+
+    @Param({"20"})
+    public int researches;
+
+    @Param({"100000"})
+    public int tail;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.directory = Files.createTempDirectory("research-journal");
+        ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+        List<ResearchId> ids = new ArrayList<>();
+        for (int r = 0; r < this.researches; r++) {
+            ids.add(ResearchId.valueOf(r));
+        }
+        for (int p = 0; p < this.players; p++) {
+            manager.restoreResearches(PlayerId.valueOf(p), ids);
+        }
+        try (ResearchJournal journal = ResearchJournal.open(this.directory, SyncPolicy.everyBatch())) {
+            journal.compact(manager);
+            for (int i = 0; i < this.tail; i++) {
+                journal.researchCompleted(ResearchId.valueOf(this.researches + i % 50), PlayerId.valueOf(i % this.players));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ResearchManager replay() throws IOException {
+        ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+        try (ResearchJournal journal = ResearchJournal.open(this.directory, SyncPolicy.everyBatch())) {
+            journal.replay(manager);
+        }
+        return manager;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol.mapper;
+
+import be.yildizgames.engine.feature.research.ResearchId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the string and binary research list mappers, the payload sizes are printed during the setup.
+ *
+ * @author Grégory Van den Borre
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResearchListCodecBenchmark {
+
+    /**
+     * dense: 300 of the first 320 ids, sparse: 300 ids among 100000.
+     */
+    @Param({"dense", "sparse"})
+    public String distribution;
+
+    private List<ResearchId> ids;
+
+    private String text;
+
+    private ByteBuffer binary;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        int range = "dense".equals(this.distribution) ? 320 : 100_000;
+        this.ids = new ArrayList<>();
+        while (this.ids.size() < 300) {
+            ResearchId id = ResearchId.valueOf(random.nextInt(range));
+            if (!this.ids.contains(id)) {
+                this.ids.add(id);
+            }
+        }
+        this.text = ResearchListMapper.getInstance().to(this.ids);
+        this.binary = ByteBuffer.allocate(ResearchListBinaryMapper.getInstance().encodedSize(this.ids));
+        ResearchListBinaryMapper.getInstance().to(this.ids, this.binary);
+        this.binary.flip();
+        System.out.println(this.distribution + " payload, string: " + this.text.getBytes(StandardCharsets.UTF_8).length
+                + " bytes, binary: " + this.binary.remaining() + " bytes");
+    }
+
+    @Benchmark
+    public String encodeString() {
+        return ResearchListMapper.getInstance().to(this.ids);
+    }
+
+    @Benchmark
+    public Collection<ResearchId> decodeString() {
+        return ResearchListMapper.getInstance().from(this.text);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeBinary() {
+        ByteBuffer buffer = this.binary.duplicate();
+        buffer.clear();
+        ResearchListBinaryMapper.getInstance().to(this.ids, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Collection<ResearchId> decodeBinary() {
+        return ResearchListBinaryMapper.getInstance().from(this.binary.duplicate());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol.mapper;
+
+import be.yildizgames.engine.feature.research.ResearchId;
+import be.yildizgames.engine.feature.research.protocol.ResearchDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the string mappers.
+ *
+ * @author Grégory Van den Borre
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResearchMapperBenchmark {
+
+    @Param({"10", "300"})
+    public int listSize;
+
+    private ResearchId id;
+
+    private String idText;
+
+    private List<ResearchId> list;
+
+    private String listText;
+
+    private ResearchDto dto;
+
+    private String dtoText;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.id = ResearchId.valueOf(123);
+        this.idText = ResearchIdMapper.getInstance().to(this.id);
+        this.list = new ArrayList<>();
+        for (int i = 0; i < this.listSize; i++) {
+            this.list.add(ResearchId.valueOf(i * 3));
+        }
+        this.listText = ResearchListMapper.getInstance().to(this.list);
+        this.dto = new ResearchDto(this.id);
+        this.dtoText = ResearchDtoMapper.getInstance().to(this.dto);
+    }
+
+    @Benchmark
+    public String encodeId() {
+        return ResearchIdMapper.getInstance().to(this.id);
+    }
+
+    @Benchmark
+    public ResearchId decodeId() {
+        return ResearchIdMapper.getInstance().from(this.idText);
+    }
+
+    @Benchmark
+    public String encodeList() {
+        return ResearchListMapper.getInstance().to(this.list);
+    }
+
+    @Benchmark
+    public Collection<ResearchId> decodeList() {
+        return ResearchListMapper.getInstance().from(this.listText);
+    }
+
+    @Benchmark
+    public String encodeDto() {
+        return ResearchDtoMapper.getInstance().to(this.dto);
+    }
+
+    @Benchmark
+    public ResearchDto decodeDto() {
+        return ResearchDtoMapper.getInstance().from(this.dtoText);
+    }
+}
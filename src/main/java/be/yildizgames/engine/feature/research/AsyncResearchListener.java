@@ -0,0 +1,272 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.PlayerId;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Research listener delivering the events to another listener on an executor, so a slow listener does not block the caller.
+ * Events are queued in lanes selected from the player, a lane is drained by one task at a time,
+ * so the events for a given player are delivered in order.
+ * Any executor can be used, on Java 21 and later Executors.newVirtualThreadPerTaskExecutor() is a good fit.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class AsyncResearchListener implements ResearchListener {
+
+    private static final System.Logger LOGGER = System.getLogger(AsyncResearchListener.class.getName());
+
+    /**
+     * Maximum number of lanes, players are spread among them.
+     */
+    private static final int LANES = 16;
+
+    /**
+     * Listener receiving the events.
+     */
+    private final ResearchListener delegate;
+
+    /**
+     * Executor running the lanes.
+     */
+    private final Executor executor;
+
+    /**
+     * Behavior when a lane is full.
+     */
+    private final OverflowPolicy overflow;
+
+    private final Lane[] lanes;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private AsyncResearchListener(final ResearchListener delegate, final Executor executor, final int capacity, final OverflowPolicy overflow) {
+        super();
+        this.delegate = delegate;
+        this.executor = executor;
+        this.overflow = overflow;
+        // Fewer lanes than events would leave empty lanes, the remainder is spread so the total is exactly the capacity.
+        int count = Math.min(LANES, capacity);
+        this.lanes = new Lane[count];
+        for (int i = 0; i < count; i++) {
+            this.lanes[i] = new Lane(capacity / count + (i < capacity % count ? 1 : 0));
+        }
+    }
+
+    /**
+     * Wrap a listener to receive its events asynchronously.
+     *
+     * @param delegate Listener to wrap.
+     * @param executor Executor delivering the events.
+     * @param capacity Maximum number of queued events for all the lanes, it is split among them.
+     * @param overflow Behavior when the queue is full.
+     * @return The asynchronous listener, to register in the research manager.
+     */
+    public static AsyncResearchListener wrap(final ResearchListener delegate, final Executor executor, final int capacity, final OverflowPolicy overflow) {
+        assert delegate != null;
+        assert executor != null;
+        assert overflow != null;
+        assert capacity > 0;
+        return new AsyncResearchListener(delegate, executor, capacity, overflow);
+    }
+
+    @Override
+    public void researchCompleted(final ResearchId research, final PlayerId player) {
+        this.submit(player, () -> this.delegate.researchCompleted(research, player));
+    }
+
+    @Override
+    public void researchAlreadyDone(final ResearchId research, final PlayerId player) {
+        this.submit(player, () -> this.delegate.researchAlreadyDone(research, player));
+    }
+
+    @Override
+    public void researchesCompleted(final Collection<ResearchId> researches, final PlayerId player) {
+        List<ResearchId> copy = List.copyOf(researches);
+        this.submit(player, () -> this.delegate.researchesCompleted(copy, player));
+    }
+
+    @Override
+    public void researchesAlreadyDone(final Collection<ResearchId> researches, final PlayerId player) {
+        List<ResearchId> copy = List.copyOf(researches);
+        this.submit(player, () -> this.delegate.researchesAlreadyDone(copy, player));
+    }
+
+    /**
+     * @return The number of events waiting to be delivered.
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Lane lane : this.lanes) {
+            depth += lane.queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * @return The number of events dropped: with the DROP policy when the queue was full,
+     * with the BLOCK policy when the caller was interrupted while waiting for room in the queue.
+     */
+    public long getDroppedEvents() {
+        return this.dropped.sum();
+    }
+
+    private void submit(final PlayerId player, final Runnable event) {
+        this.lanes[(player.hashCode() & Integer.MAX_VALUE) % this.lanes.length].submit(event);
+    }
+
+    /**
+     * Behavior when an event cannot be queued because the queue is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Wait until there is room in the queue.
+         */
+        BLOCK,
+
+        /**
+         * Drop the event.
+         */
+        DROP,
+
+        /**
+         * Deliver the queued events for the lane and then this event on the calling thread.
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * Queue of events drained by at most one thread at a time.
+     */
+    private final class Lane implements Runnable {
+
+        private final BlockingQueue<Runnable> queue;
+
+        /**
+         * <code>true</code> when a drain task is submitted to the executor and not finished.
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * Held while delivering events, a lock rather than a monitor so a virtual thread does not pin its carrier
+         * while the delegate blocks.
+         */
+        private final ReentrantLock delivering = new ReentrantLock();
+
+        private Lane(final int capacity) {
+            super();
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void submit(final Runnable event) {
+            if (!this.queue.offer(event)) {
+                switch (overflow) {
+                    case BLOCK:
+                        this.schedule();
+                        try {
+                            this.queue.put(event);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            dropped.increment();
+                            return;
+                        }
+                        break;
+                    case DROP:
+                        dropped.increment();
+                        return;
+                    case CALLER_RUNS:
+                        this.delivering.lock();
+                        try {
+                            this.drain();
+                            deliver(event);
+                        } finally {
+                            this.delivering.unlock();
+                        }
+                        return;
+                    default:
+                        throw new IllegalStateException("Unknown policy " + overflow);
+                }
+            }
+            this.schedule();
+        }
+
+        private void schedule() {
+            if (this.scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    this.scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        /**
+         * Drain the lane, it is rescheduled even if the delegate threw an error, so the lane never stops.
+         */
+        @Override
+        public void run() {
+            try {
+                this.delivering.lock();
+                try {
+                    this.drain();
+                } finally {
+                    this.delivering.unlock();
+                }
+            } finally {
+                this.scheduled.set(false);
+                if (!this.queue.isEmpty()) {
+                    this.schedule();
+                }
+            }
+        }
+
+        private void drain() {
+            Runnable event;
+            while ((event = this.queue.poll()) != null) {
+                deliver(event);
+            }
+        }
+    }
+
+    private static void deliver(final Runnable event) {
+        try {
+            event.run();
+        } catch (RuntimeException e) {
+            LOGGER.log(System.Logger.Level.ERROR, "Research listener failed.", e);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+package be.yildizgames.engine.feature.research;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Research set storing the low ids as bits in a long array, other ids are stored in a sorted int array.
+ * The bitmap only grows to cover an id from 0 to DENSE_LIMIT when it is not larger than the same ids stored as ints,
+ * i.e. when they are at least one every 32 ids, so a few high ids do not cost a large bitmap.
+ * Content is copied on write and published at once, so reads never lock and never allocate.
+ *
+ * @author Grégory Van den Borre
+ */
+final class BitResearchSet implements ResearchSet {
+
+    /**
+     * Ids from 0 (inclusive) to this value (exclusive) can be stored as bits.
+     */
+    static final int DENSE_LIMIT = 1 << 16;
+
+    private static final Content EMPTY = new Content(new long[0], new int[0], 0);
+
+    private volatile Content content = EMPTY;
+
+    static boolean isDense(final int id) {
+        return id >= 0 && id < DENSE_LIMIT;
+    }
+
+    @Override
+    public synchronized boolean add(final ResearchId research) {
+        int id = research.value;
+        Content current = this.content;
+        if (current.contains(id)) {
+            return false;
+        }
+        if (current.inBitmap(id)) {
+            long[] copy = current.words.clone();
+            copy[id >>> 6] |= 1L << id;
+            this.content = new Content(copy, current.sparse, current.size + 1);
+        } else {
+            int insertion = -Arrays.binarySearch(current.sparse, id) - 1;
+            int[] others = new int[current.sparse.length + 1];
+            System.arraycopy(current.sparse, 0, others, 0, insertion);
+            others[insertion] = id;
+            System.arraycopy(current.sparse, insertion, others, insertion + 1, current.sparse.length - insertion);
+            this.content = layout(current.words, current.size - current.sparse.length, others);
+        }
+        return true;
+    }
+
+    /**
+     * Add several researches at once, the arrays are copied a single time whatever the number of researches.
+     *
+     * @param ids Values of the research ids to add, duplicates are allowed.
+     */
+    synchronized void addAll(final int[] ids) {
+        Content current = this.content;
+        long[] words = current.words.clone();
+        int bits = current.size - current.sparse.length;
+        int[] others = Arrays.copyOf(current.sparse, current.sparse.length + ids.length);
+        int count = current.sparse.length;
+        for (int id : ids) {
+            if (current.inBitmap(id)) {
+                long mask = 1L << id;
+                if ((words[id >>> 6] & mask) == 0) {
+                    words[id >>> 6] |= mask;
+                    bits++;
+                }
+            } else {
+                others[count++] = id;
+            }
+        }
+        Arrays.sort(others, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || others[i] != others[i - 1]) {
+                others[unique++] = others[i];
+            }
+        }
+        this.content = layout(words, bits, Arrays.copyOf(others, unique));
+    }
+
+    /**
+     * Grow the bitmap to cover the ids outside of it for which it is not larger than the sorted array.
+     *
+     * @param words  Current bitmap, not modified.
+     * @param bits   Number of ids in the bitmap.
+     * @param others Sorted and unique ids not covered by the bitmap.
+     * @return The content holding all the ids.
+     */
+    private static Content layout(final long[] words, final int bits, final int[] others) {
+        int length = words.length;
+        int firstDense = 0;
+        while (firstDense < others.length && others[firstDense] < 0) {
+            firstDense++;
+        }
+        for (int i = firstDense; i < others.length && isDense(others[i]); i++) {
+            int index = others[i] >>> 6;
+            while (i + 1 < others.length && isDense(others[i + 1]) && others[i + 1] >>> 6 == index) {
+                i++;
+            }
+            // Bitmap of index + 1 words against 4 bytes for every id it would hold.
+            if (Long.BYTES * (index + 1L) <= Integer.BYTES * (bits + i + 1L - firstDense)) {
+                length = index + 1;
+            }
+        }
+        if (length == words.length) {
+            return new Content(words, others, bits + others.length);
+        }
+        long[] grown = Arrays.copyOf(words, length);
+        int end = firstDense;
+        while (end < others.length && isDense(others[end]) && others[end] >>> 6 < length) {
+            grown[others[end] >>> 6] |= 1L << others[end];
+            end++;
+        }
+        int[] sparse = new int[others.length - end + firstDense];
+        System.arraycopy(others, 0, sparse, 0, firstDense);
+        System.arraycopy(others, end, sparse, firstDense, others.length - end);
+        return new Content(grown, sparse, bits + others.length);
+    }
+
+    @Override
+    public boolean contains(final ResearchId research) {
+        return this.content.contains(research.value);
+    }
+
+    /**
+     * @return The current content, never modified once published.
+     */
+    Content getContent() {
+        return this.content;
+    }
+
+    @Override
+    public long word(final int index) {
+        return this.content.word(index);
+    }
+
+    @Override
+    public int size() {
+        return this.content.size;
+    }
+
+    @Override
+    public Set<ResearchId> asSet() {
+        return new View(this);
+    }
+
+    /**
+     * The content is never modified once published, so the snapshot shares it and costs a single small object.
+     */
+    @Override
+    public Set<ResearchId> snapshot() {
+        return new Snapshot(this.content);
+    }
+
+    @Override
+    public long footprint() {
+        Content current = this.content;
+        long size = 16;
+        if (current != EMPTY) {
+            size += 24;
+        }
+        if (current.words.length > 0) {
+            size += 16 + 8L * current.words.length;
+        }
+        if (current.sparse.length > 0) {
+            size += 16 + 4L * current.sparse.length;
+        }
+        return size;
+    }
+
+    /**
+     * Immutable state of the set, the ids covered by the bitmap are never in the sparse array.
+     */
+    static final class Content {
+
+        /**
+         * Bit i is set if research with id i is in this set.
+         */
+        private final long[] words;
+
+        /**
+         * Sorted ids not covered by the words.
+         */
+        private final int[] sparse;
+
+        private final int size;
+
+        private Content(final long[] words, final int[] sparse, final int size) {
+            super();
+            this.words = words;
+            this.sparse = sparse;
+            this.size = size;
+        }
+
+        private boolean inBitmap(final int id) {
+            return id >= 0 && id >>> 6 < this.words.length;
+        }
+
+        boolean contains(final int id) {
+            if (this.inBitmap(id)) {
+                return (this.words[id >>> 6] & (1L << id)) != 0;
+            }
+            return Arrays.binarySearch(this.sparse, id) >= 0;
+        }
+
+        /**
+         * @param index Word index, positive.
+         * @return Bit i is set if the id 64 * index + i is in this set.
+         */
+        long word(final int index) {
+            if (index < this.words.length) {
+                return this.words[index];
+            }
+            if (this.sparse.length == 0) {
+                return 0;
+            }
+            int from = index << 6;
+            int i = Arrays.binarySearch(this.sparse, from);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            long word = 0;
+            for (; i < this.sparse.length && this.sparse[i] - from < Long.SIZE; i++) {
+                word |= 1L << this.sparse[i];
+            }
+            return word;
+        }
+    }
+
+    /**
+     * Unmodifiable view, iteration reads the content published when it starts.
+     */
+    private static final class View extends AbstractSet<ResearchId> {
+
+        private final BitResearchSet set;
+
+        private View(final BitResearchSet set) {
+            super();
+            this.set = set;
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return o instanceof ResearchId && this.set.contains((ResearchId) o);
+        }
+
+        @Override
+        public int size() {
+            return this.set.size();
+        }
+
+        @Override
+        public Iterator<ResearchId> iterator() {
+            return new BitIterator(this.set.content);
+        }
+    }
+
+    /**
+     * Immutable set sharing the content of the research set at the time it was created.
+     */
+    private static final class Snapshot extends AbstractSet<ResearchId> {
+
+        private final Content content;
+
+        private Snapshot(final Content content) {
+            super();
+            this.content = content;
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return o instanceof ResearchId && this.content.contains(((ResearchId) o).value);
+        }
+
+        @Override
+        public int size() {
+            return this.content.size;
+        }
+
+        @Override
+        public Iterator<ResearchId> iterator() {
+            return new BitIterator(this.content);
+        }
+    }
+
+    private static final class BitIterator implements Iterator<ResearchId> {
+
+        private final long[] words;
+
+        private final int[] sparse;
+
+        private int wordIndex;
+
+        private long word;
+
+        private int sparseIndex;
+
+        private BitIterator(final Content content) {
+            super();
+            this.words = content.words;
+            this.sparse = content.sparse;
+            this.word = this.words.length == 0 ? 0 : this.words[0];
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.word == 0 && this.wordIndex < this.words.length - 1) {
+                this.wordIndex++;
+                this.word = this.words[this.wordIndex];
+            }
+            return this.word != 0 || this.sparseIndex < this.sparse.length;
+        }
+
+        @Override
+        public ResearchId next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (this.word != 0) {
+                int bit = Long.numberOfTrailingZeros(this.word);
+                this.word &= this.word - 1;
+                return ResearchId.valueOf((this.wordIndex << 6) + bit);
+            }
+            return ResearchId.valueOf(this.sparse[this.sparseIndex++]);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import java.time.Duration;
+
+/**
+ * Define when a research manager unloads the researches of its players.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class EvictionPolicy {
+
+    /**
+     * Maximum number of players kept in memory.
+     */
+    private final int maxPlayers;
+
+    /**
+     * Time without access before a player can be unloaded, in nanoseconds.
+     */
+    private final long idleNanos;
+
+    private EvictionPolicy(final int maxPlayers, final long idleNanos) {
+        super();
+        this.maxPlayers = maxPlayers;
+        this.idleNanos = idleNanos;
+    }
+
+    /**
+     * Keep at most a number of players, the least recently used ones are unloaded first.
+     *
+     * @param maxPlayers Maximum number of players in memory, strictly positive.
+     * @return The created policy.
+     */
+    public static EvictionPolicy maxPlayers(final int maxPlayers) {
+        assert maxPlayers > 0;
+        return new EvictionPolicy(maxPlayers, Long.MAX_VALUE);
+    }
+
+    /**
+     * Unload the players not accessed for a given duration, the check is done by ResearchManager.evict.
+     *
+     * @param timeout Idle time before unloading a player.
+     * @return The created policy.
+     */
+    public static EvictionPolicy idle(final Duration timeout) {
+        assert timeout != null;
+        return new EvictionPolicy(Integer.MAX_VALUE, timeout.toNanos());
+    }
+
+    /**
+     * @param timeout Idle time before unloading a player.
+     * @return A policy with this size bound and the given idle timeout.
+     */
+    public EvictionPolicy withIdleTimeout(final Duration timeout) {
+        assert timeout != null;
+        return new EvictionPolicy(this.maxPlayers, timeout.toNanos());
+    }
+
+    int getMaxPlayers() {
+        return this.maxPlayers;
+    }
+
+    long getIdleNanos() {
+        return this.idleNanos;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Research set backed by a concurrent hash set.
+ *
+ * @author Grégory Van den Borre
+ */
+final class HashResearchSet implements ResearchSet {
+
+    private final Set<ResearchId> researches = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean add(final ResearchId research) {
+        return this.researches.add(research);
+    }
+
+    @Override
+    public boolean contains(final ResearchId research) {
+        return this.researches.contains(research);
+    }
+
+    @Override
+    public int size() {
+        return this.researches.size();
+    }
+
+    @Override
+    public Set<ResearchId> asSet() {
+        return Collections.unmodifiableSet(this.researches);
+    }
+
+    /**
+     * The concurrent set cannot be frozen, so the snapshot is a full copy.
+     */
+    @Override
+    public Set<ResearchId> snapshot() {
+        return Set.copyOf(this.researches);
+    }
+
+    /**
+     * Estimation based on a 32 bytes node and a table reference per research, plus the map and key set objects.
+     */
+    @Override
+    public long footprint() {
+        return 112 + 40L * this.researches.size();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of durations in nanoseconds with power of two buckets.
+ * Recording uses striped counters so concurrent threads do not contend, percentiles are the upper bound of their bucket so they are precise within a factor 2.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Bucket i holds the values v with 2^(i-1) <= v < 2^i, bucket 0 holds 0.
+     */
+    private final LongAdder[] buckets = new LongAdder[Long.SIZE + 1];
+
+    private final LongAdder total = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    private LatencyHistogram() {
+        super();
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @return A new empty histogram.
+     */
+    public static LatencyHistogram create() {
+        return new LatencyHistogram();
+    }
+
+    /**
+     * Record a duration.
+     *
+     * @param nanos Duration to record, negative values are recorded as 0.
+     */
+    public void record(final long nanos) {
+        long value = Math.max(0, nanos);
+        this.buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+        this.total.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * @return The number of recorded values.
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : this.buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return The sum of the recorded values.
+     */
+    public long getTotal() {
+        return this.total.sum();
+    }
+
+    /**
+     * @return The highest recorded value.
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Provide an upper bound for a percentile.
+     *
+     * @param percentile Percentile to compute, between 0 and 100.
+     * @return The upper bound of the bucket containing the percentile, 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        assert percentile >= 0 && percentile <= 100;
+        long count = this.getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < this.buckets.length; i++) {
+            seen += this.buckets[i].sum();
+            if (seen >= rank) {
+                return i == 0 ? 0 : Math.min(this.getMax(), i == Long.SIZE ? Long.MAX_VALUE : (1L << i) - 1);
+            }
+        }
+        return this.getMax();
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * State kept by the research manager for a single player.
+ * Writes are synchronized on this object, reads are lock free.
+ *
+ * @author Grégory Van den Borre
+ */
+final class PlayerResearches {
+
+    /**
+     * Completed researches.
+     */
+    private final ResearchSet done;
+
+    /**
+     * Available researches updated in place under this object lock, null until requested for the first time.
+     */
+    private Set<ResearchId> available;
+
+    /**
+     * Catalog the available researches were computed with.
+     */
+    private ResearchCatalog availableCatalog;
+
+    /**
+     * Immutable copy of the available researches published on read, null when a completion changed them.
+     */
+    private volatile Availability availability;
+
+    /**
+     * Bonuses of the completed researches, null until requested for the first time.
+     */
+    private volatile ResearchBonuses bonuses;
+
+    /**
+     * Last access time in nanoseconds, only maintained when the manager evicts its players.
+     */
+    private volatile long lastAccess = System.nanoTime();
+
+    /**
+     * Set under this object lock when the manager unloads the player, a write must then be done on the reloaded instance.
+     */
+    private boolean unloaded;
+
+    /**
+     * Number of changes whose listeners are being notified, guarded by this object lock, the player is not unloaded while positive.
+     */
+    private int dispatching;
+
+    PlayerResearches(final ResearchSet done) {
+        super();
+        this.done = done;
+    }
+
+    /**
+     * Flag this instance as unloaded if it was not accessed since an eviction sweep read its last access time
+     * and no change is being notified.
+     *
+     * @param access Last access time read by the sweep.
+     * @return <code>true</code> if the instance is unloaded, the caller holds this object lock.
+     */
+    boolean unload(final long access) {
+        assert Thread.holdsLock(this);
+        if (this.lastAccess != access || this.dispatching > 0) {
+            return false;
+        }
+        this.unloaded = true;
+        return true;
+    }
+
+    /**
+     * A change is being notified, the caller holds this object lock.
+     */
+    void startDispatch() {
+        assert Thread.holdsLock(this);
+        this.dispatching++;
+    }
+
+    /**
+     * A change notification is over, the caller holds this object lock.
+     */
+    void endDispatch() {
+        assert Thread.holdsLock(this);
+        this.dispatching--;
+    }
+
+    /**
+     * @return <code>true</code> if the player was unloaded, the caller holds this object lock.
+     */
+    boolean isUnloaded() {
+        assert Thread.holdsLock(this);
+        return this.unloaded;
+    }
+
+    /**
+     * Create the state of a player from the values of its research ids, bitsets are filled in a single pass.
+     *
+     * @param done Empty set to fill.
+     * @param ids  Research id values.
+     * @return The created state.
+     */
+    static PlayerResearches load(final ResearchSet done, final int[] ids) {
+        if (done instanceof BitResearchSet) {
+            ((BitResearchSet) done).addAll(ids);
+        } else {
+            for (int id : ids) {
+                done.add(ResearchId.valueOf(id));
+            }
+        }
+        return new PlayerResearches(done);
+    }
+
+    void touch() {
+        this.lastAccess = System.nanoTime();
+    }
+
+    long getLastAccess() {
+        return this.lastAccess;
+    }
+
+    ResearchSet getDone() {
+        return this.done;
+    }
+
+    /**
+     * Complete a research and update the available researches for its dependents.
+     *
+     * @param research Completed research.
+     * @return <code>true</code> if the research was not already done.
+     */
+    synchronized boolean add(final ResearchId research) {
+        if (!this.done.add(research)) {
+            return false;
+        }
+        List<ResearchId> completed = List.of(research);
+        this.updateAvailability(completed);
+        this.updateBonuses(completed);
+        return true;
+    }
+
+    /**
+     * Complete several researches, the available researches are updated once for the whole batch.
+     *
+     * @param researches Researches to complete.
+     * @param completed Receive the researches that were not already done.
+     * @param alreadyDone Receive the researches that were already done.
+     */
+    synchronized void addAll(final Collection<ResearchId> researches, final Collection<ResearchId> completed, final Collection<ResearchId> alreadyDone) {
+        for (ResearchId research : researches) {
+            if (this.done.add(research)) {
+                completed.add(research);
+            } else {
+                alreadyDone.add(research);
+            }
+        }
+        if (!completed.isEmpty()) {
+            this.updateAvailability(completed);
+            this.updateBonuses(completed);
+        }
+    }
+
+    /**
+     * Complete several researches without reporting which ones were already done.
+     *
+     * @param researches Researches to complete.
+     */
+    synchronized void restore(final Collection<ResearchId> researches) {
+        List<ResearchId> completed = new ArrayList<>(researches.size());
+        for (ResearchId research : researches) {
+            if (this.done.add(research)) {
+                completed.add(research);
+            }
+        }
+        if (!completed.isEmpty()) {
+            this.updateAvailability(completed);
+            this.updateBonuses(completed);
+        }
+    }
+
+    private void updateBonuses(final Collection<ResearchId> completed) {
+        ResearchBonuses current = this.bonuses;
+        if (current != null) {
+            this.bonuses = current.with(completed);
+        }
+    }
+
+    /**
+     * Recompute the available researches and bonuses for a new catalog, only if they were requested with a previous one.
+     *
+     * @param catalog New catalog.
+     */
+    void rebuild(final ResearchCatalog catalog) {
+        boolean requested;
+        synchronized (this) {
+            requested = this.available != null;
+        }
+        if (requested) {
+            this.getAvailable(catalog);
+        }
+        if (this.bonuses != null) {
+            this.getBonuses(catalog);
+        }
+    }
+
+    /**
+     * Provide the bonuses of the completed researches, computed from all of them only on first call or when the catalog changed,
+     * then updated with every completion.
+     *
+     * @param catalog Catalog to use.
+     * @return The bonuses of the completed researches.
+     */
+    ResearchBonuses getBonuses(final ResearchCatalog catalog) {
+        ResearchBonuses current = this.bonuses;
+        if (current != null && current.getCatalog() == catalog) {
+            return current;
+        }
+        synchronized (this) {
+            current = this.bonuses;
+            if (current == null || current.getCatalog() != catalog) {
+                current = ResearchBonuses.compute(catalog, this.done.asSet());
+                this.bonuses = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Remove the completed researches from the available ones and add their dependents with all prerequisites done,
+     * only the changed entries are touched, the immutable copy is made on the next read.
+     *
+     * @param completed Researches just completed.
+     */
+    private void updateAvailability(final Collection<ResearchId> completed) {
+        if (this.available != null) {
+            for (ResearchId research : completed) {
+                this.available.remove(research);
+                for (Research dependent : this.availableCatalog.getDependents(research)) {
+                    if (!this.done.contains(dependent.getId()) && dependent.prerequisitesDone(this.done)) {
+                        this.available.add(dependent.getId());
+                    }
+                }
+            }
+            this.availability = null;
+        }
+    }
+
+    /**
+     * Provide the available researches, they are computed from the whole catalog only on first call or when the catalog changed,
+     * and copied on the first call after a completion.
+     *
+     * @param catalog Catalog to use.
+     * @return The researches not done with all their prerequisites done.
+     */
+    Set<ResearchId> getAvailable(final ResearchCatalog catalog) {
+        Availability current = this.availability;
+        if (current != null && current.catalog == catalog) {
+            return current.ids;
+        }
+        synchronized (this) {
+            if (this.available == null || this.availableCatalog != catalog) {
+                Set<ResearchId> ids = new LinkedHashSet<>();
+                for (Research r : catalog.getResearches()) {
+                    if (!this.done.contains(r.getId()) && r.prerequisitesDone(this.done)) {
+                        ids.add(r.getId());
+                    }
+                }
+                this.available = ids;
+                this.availableCatalog = catalog;
+                this.availability = null;
+            }
+            current = this.availability;
+            if (current == null) {
+                current = new Availability(catalog, new LinkedHashSet<>(this.available));
+                this.availability = current;
+            }
+            return current.ids;
+        }
+    }
+
+    /**
+     * Immutable available researches computed with a catalog.
+     */
+    private static final class Availability {
+
+        private final ResearchCatalog catalog;
+
+        private final Set<ResearchId> ids;
+
+        private Availability(final ResearchCatalog catalog, final Set<ResearchId> ids) {
+            super();
+            this.catalog = catalog;
+            this.ids = Collections.unmodifiableSet(ids);
+        }
+    }
+}
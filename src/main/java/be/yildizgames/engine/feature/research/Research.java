@@ -26,12 +26,18 @@ package be.yildizgames.engine.feature.research;
 
 import be.yildizgames.common.model.BonusId;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Contains the data for a research.
+ * Researches created with createAndRegister are added to a global catalog used by the default research manager,
+ * researches created with create are only added to the catalogs they are given to, i.e. one per game world.
  *
  * @author Grégory Van den Borre
  */
@@ -40,7 +46,12 @@ public final class Research {
     /**
      * Contains all created Research, to check name is unique and to retrieve a Research from its name.
      */
-    private static final Map<ResearchId, Research> REGISTERER = new HashMap<>();
+    private static final ResearchCatalog.Builder REGISTERER = ResearchCatalog.builder();
+
+    /**
+     * Catalog frozen from the registered researches, null when a research has been registered since the last freeze.
+     */
+    private static volatile ResearchCatalog catalog;
 
     /**
      * Bonus obtained the this research is done.
@@ -53,20 +64,72 @@ public final class Research {
     private final float price;
 
     /**
-     * Research needed to be done before making this one, optional. none.
+     * Researches needed to be done before making this one, can be empty.
+     */
+    private final Set<ResearchId> prerequisites;
+
+    /**
+     * Word indexes of the prerequisites with a dense id, as stored in a bitset.
+     */
+    private final int[] prerequisiteWords;
+
+    /**
+     * Bits of the prerequisites with a dense id, one mask for every word index in prerequisiteWords.
      */
-    private final ResearchId prerequisite;
+    private final long[] prerequisiteMasks;
+
+    /**
+     * Prerequisites with an id outside of the dense range.
+     */
+    private final ResearchId[] sparsePrerequisites;
 
     private final ResearchId id;
 
 
-    private Research(final ResearchId id, final float researchPrice, final BonusId bonus, final ResearchId prerequisite) {
+    private Research(final ResearchId id, final float researchPrice, final BonusId bonus, final Collection<ResearchId> prerequisites, final boolean register) {
         super();
-        this.prerequisite = prerequisite;
+        this.prerequisites = prerequisites.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(new LinkedHashSet<>(prerequisites));
+        int[] dense = this.prerequisites.stream().mapToInt(p -> p.value).filter(BitResearchSet::isDense).sorted().toArray();
+        int[] words = new int[dense.length];
+        long[] masks = new long[dense.length];
+        int count = 0;
+        for (int value : dense) {
+            int word = value >>> 6;
+            if (count == 0 || words[count - 1] != word) {
+                words[count] = word;
+                count++;
+            }
+            masks[count - 1] |= 1L << value;
+        }
+        this.prerequisiteWords = Arrays.copyOf(words, count);
+        this.prerequisiteMasks = Arrays.copyOf(masks, count);
+        this.sparsePrerequisites = this.prerequisites.stream().filter(p -> !BitResearchSet.isDense(p.value)).toArray(ResearchId[]::new);
         this.price = researchPrice;
         this.bonus = bonus;
-        this.id = id;
-        REGISTERER.put(id, this);
+        this.id = ResearchId.register(id);
+        if (register) {
+            synchronized (REGISTERER) {
+                REGISTERER.add(this);
+                catalog = null;
+            }
+        }
+    }
+
+    /**
+     * Create a research without registering it in the global catalog, it is meant to be added to a ResearchCatalog.Builder.
+     *
+     * @param id            Research unique id.
+     * @param price         Research price.
+     * @param bonus         Bonus received when this research is bought.
+     * @param prerequisites Researches all needed before buying this one, can be empty.
+     * @return The created research.
+     */
+    public static Research create(final ResearchId id, final float price, final BonusId bonus, final Collection<ResearchId> prerequisites) {
+        assert id != null;
+        assert prerequisites != null;
+        return new Research(id, price, bonus, prerequisites, false);
     }
 
     /**
@@ -77,7 +140,7 @@ public final class Research {
      */
     //@effects Create a new Research with no prerequisite.
     public static Research createAndRegister(final ResearchId id, final float price, final BonusId bonus) {
-        return new Research(id, price, bonus, null);
+        return new Research(id, price, bonus, Collections.emptyList(), true);
     }
 
     /**
@@ -89,17 +152,66 @@ public final class Research {
      */
     //@effects Create a new Research with a prerequisite.
     public static Research createAndRegister(final ResearchId id, final float price, final BonusId bonus, final ResearchId prerequisite) {
-        return new Research(id, price, bonus, prerequisite);
+        return new Research(id, price, bonus, prerequisite == null ? Collections.emptyList() : List.of(prerequisite), true);
+    }
+
+    /**
+     * @param id            Research unique id.
+     * @param price         Research price.
+     * @param bonus         Bonus received when this research is bought.
+     * @param prerequisites Researches all needed before buying this one.
+     * @return The created research.
+     * @throws IllegalArgumentException If the prerequisites create a cycle with the registered researches.
+     */
+    //@effects Create a new Research with several prerequisites.
+    public static Research createAndRegister(final ResearchId id, final float price, final BonusId bonus, final Collection<ResearchId> prerequisites) {
+        assert prerequisites != null;
+        return new Research(id, price, bonus, prerequisites, true);
     }
 
     /**
-     * Retrieve a research with its unique name.
+     * Replace all the registered researches with the content of a catalog, i.e. to deploy a content patch without restart.
+     * The catalog is published with a single volatile write, readers holding the previous catalog keep using it
+     * and the research managers using the global catalog see the new one on their next call.
+     * Researches registered later are added to this catalog content.
+     *
+     * @param published Catalog to publish, usually built from researches created with create.
+     */
+    public static void publishCatalog(final ResearchCatalog published) {
+        assert published != null;
+        synchronized (REGISTERER) {
+            REGISTERER.reset(published.getResearches());
+            catalog = published;
+        }
+    }
+
+    /**
+     * Retrieve a registered research with its unique name.
      *
      * @param id Research unique id.
      * @return The research matching to the given name.
      */
     public static Research get(final ResearchId id) {
-        return Research.REGISTERER.get(id);
+        return getCatalog().get(id);
+    }
+
+    /**
+     * Retrieve the catalog of all registered researches, it is frozen again only after a new registration.
+     *
+     * @return The catalog containing all the registered researches.
+     */
+    public static ResearchCatalog getCatalog() {
+        ResearchCatalog current = catalog;
+        if (current == null) {
+            synchronized (REGISTERER) {
+                current = catalog;
+                if (current == null) {
+                    current = REGISTERER.build();
+                    catalog = current;
+                }
+            }
+        }
+        return current;
     }
 
     public BonusId getBonus() {
@@ -114,7 +226,64 @@ public final class Research {
         return this.id;
     }
 
+    /**
+     * @return The first prerequisite, if any.
+     * @deprecated A research can have several prerequisites, use getPrerequisites.
+     */
+    @Deprecated
     public Optional<ResearchId> getPrerequisite() {
-        return Optional.ofNullable(prerequisite);
+        return this.prerequisites.stream().findFirst();
+    }
+
+    /**
+     * @return All the researches needed before making this one, in declaration order.
+     */
+    public Set<ResearchId> getPrerequisites() {
+        return this.prerequisites;
+    }
+
+    int[] getPrerequisiteWords() {
+        return this.prerequisiteWords;
+    }
+
+    long[] getPrerequisiteMasks() {
+        return this.prerequisiteMasks;
+    }
+
+    ResearchId[] getSparsePrerequisites() {
+        return this.sparsePrerequisites;
+    }
+
+    /**
+     * Check if all the prerequisites are in a research set, dense prerequisites are checked one word at a time for a bitset,
+     * other sets are probed once per prerequisite.
+     *
+     * @param done Researches already done, can be null if none has been done.
+     * @return <code>true</code> if all prerequisites are done.
+     */
+    boolean prerequisitesDone(final ResearchSet done) {
+        if (done == null) {
+            return this.prerequisites.isEmpty();
+        }
+        if (!(done instanceof BitResearchSet)) {
+            for (ResearchId prerequisite : this.prerequisites) {
+                if (!done.contains(prerequisite)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (int i = 0; i < this.prerequisiteWords.length; i++) {
+            long mask = this.prerequisiteMasks[i];
+            if ((done.word(this.prerequisiteWords[i]) & mask) != mask) {
+                return false;
+            }
+        }
+        for (ResearchId prerequisite : this.sparsePrerequisites) {
+            if (!done.contains(prerequisite)) {
+                return false;
+            }
+        }
+        return true;
     }
 }
@@ -0,0 +1,114 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.BonusId;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of the bonuses obtained by a player from its completed researches.
+ * A bonus can be given by several researches, its count is the number of completed researches giving it.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ResearchBonuses {
+
+    /**
+     * Bonuses of a player without research.
+     */
+    public static final ResearchBonuses EMPTY = new ResearchBonuses(null, Collections.emptyMap());
+
+    /**
+     * Catalog used to find the research bonuses.
+     */
+    private final ResearchCatalog catalog;
+
+    private final Map<BonusId, Integer> counts;
+
+    private ResearchBonuses(final ResearchCatalog catalog, final Map<BonusId, Integer> counts) {
+        super();
+        this.catalog = catalog;
+        this.counts = counts;
+    }
+
+    /**
+     * Compute the bonuses for a set of researches.
+     *
+     * @param catalog    Catalog providing the researches, researches missing from it give no bonus.
+     * @param researches Completed researches.
+     * @return The computed bonuses.
+     */
+    static ResearchBonuses compute(final ResearchCatalog catalog, final Collection<ResearchId> researches) {
+        return new ResearchBonuses(catalog, Collections.emptyMap()).with(researches);
+    }
+
+    /**
+     * @param completed Newly completed researches.
+     * @return New bonuses with the bonuses of the completed researches added.
+     */
+    ResearchBonuses with(final Collection<ResearchId> completed) {
+        Map<BonusId, Integer> copy = new HashMap<>(this.counts);
+        for (ResearchId id : completed) {
+            Research research = this.catalog.get(id);
+            if (research != null && research.getBonus() != null) {
+                copy.merge(research.getBonus(), 1, Integer::sum);
+            }
+        }
+        return new ResearchBonuses(this.catalog, Collections.unmodifiableMap(copy));
+    }
+
+    ResearchCatalog getCatalog() {
+        return this.catalog;
+    }
+
+    /**
+     * @param bonus Bonus to check.
+     * @return <code>true</code> if at least one completed research gives this bonus.
+     */
+    public boolean contains(final BonusId bonus) {
+        return this.counts.containsKey(bonus);
+    }
+
+    /**
+     * @param bonus Bonus to check.
+     * @return The number of completed researches giving this bonus.
+     */
+    public int getCount(final BonusId bonus) {
+        Integer count = this.counts.get(bonus);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * @return All the bonuses obtained.
+     */
+    public Set<BonusId> getBonuses() {
+        return this.counts.keySet();
+    }
+}
@@ -0,0 +1,478 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable set of researches.
+ * Researches with an id from 0 to DENSE_LIMIT are indexed in a flat array, others in a hash map.
+ * The prerequisites form a directed acyclic graph, the catalog keeps its topological order.
+ * All fields are final, so a catalog can be shared between threads without synchronization once built.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ResearchCatalog {
+
+    /**
+     * Research ids from 0 (inclusive) to this value (exclusive) are indexed in the array.
+     */
+    static final int DENSE_LIMIT = BitResearchSet.DENSE_LIMIT;
+
+    private static final byte AVAILABLE = (byte) ResearchManager.ResearchState.AVAILABLE.ordinal();
+
+    private static final byte UNAVAILABLE = (byte) ResearchManager.ResearchState.UNAVAILABLE.ordinal();
+
+    private static final byte DONE = (byte) ResearchManager.ResearchState.DONE.ordinal();
+
+    /**
+     * Last version given to a catalog.
+     */
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    /**
+     * Version of this catalog, every built catalog has a higher version than the previous ones.
+     */
+    private final long version;
+
+    /**
+     * Researches indexed by their id value.
+     */
+    private final Research[] dense;
+
+    /**
+     * Researches with an id outside of the dense range.
+     */
+    private final Map<ResearchId, Research> sparse;
+
+    /**
+     * All researches, in registration order.
+     */
+    private final List<Research> researches;
+
+    /**
+     * All researches, every research comes after its prerequisites.
+     */
+    private final List<Research> topologicalOrder;
+
+    /**
+     * Reverse prerequisite index, researches having the key as prerequisite.
+     */
+    private final Map<ResearchId, List<Research>> dependents;
+
+    /**
+     * Ids of the researches without prerequisite.
+     */
+    private final Set<ResearchId> roots;
+
+    /**
+     * Position in registration order of the researches indexed by their id value, -1 if absent.
+     */
+    private final int[] densePositions;
+
+    /**
+     * Position in registration order of the researches with an id outside of the dense range.
+     */
+    private final Map<ResearchId, Integer> sparsePositions;
+
+    /**
+     * Id value of every research, in registration order.
+     */
+    private final int[] ids;
+
+    /**
+     * Research i has its dense prerequisite words and masks from prerequisiteStart[i] to prerequisiteStart[i + 1].
+     */
+    private final int[] prerequisiteStart;
+
+    /**
+     * Word indexes of the dense prerequisites of all researches, flattened.
+     */
+    private final int[] prerequisiteWords;
+
+    /**
+     * Masks of the dense prerequisites of all researches, flattened.
+     */
+    private final long[] prerequisiteMasks;
+
+    /**
+     * <code>true</code> if the research at the same index has a prerequisite outside of the dense range, or is itself outside.
+     */
+    private final boolean[] needsFallback;
+
+    private ResearchCatalog(final Collection<Research> researches) {
+        super();
+        this.version = VERSIONS.incrementAndGet();
+        int max = -1;
+        for (Research r : researches) {
+            int value = r.getId().value;
+            if (value >= 0 && value < DENSE_LIMIT) {
+                max = Math.max(max, value);
+            }
+        }
+        this.dense = new Research[max + 1];
+        Map<ResearchId, Research> outside = new HashMap<>();
+        for (Research r : researches) {
+            int value = r.getId().value;
+            if (value >= 0 && value < DENSE_LIMIT) {
+                this.dense[value] = r;
+            } else {
+                outside.put(r.getId(), r);
+            }
+        }
+        this.sparse = outside.isEmpty() ? Collections.emptyMap() : outside;
+        this.researches = Collections.unmodifiableList(new ArrayList<>(researches));
+        Map<ResearchId, List<Research>> reverse = new HashMap<>();
+        Set<ResearchId> noPrerequisite = new LinkedHashSet<>();
+        for (Research r : this.researches) {
+            for (ResearchId prerequisite : r.getPrerequisites()) {
+                reverse.computeIfAbsent(prerequisite, k -> new ArrayList<>()).add(r);
+            }
+            if (r.getPrerequisites().isEmpty()) {
+                noPrerequisite.add(r.getId());
+            }
+        }
+        reverse.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        this.dependents = reverse;
+        this.roots = Collections.unmodifiableSet(noPrerequisite);
+        this.topologicalOrder = this.sort();
+        int count = this.researches.size();
+        this.ids = new int[count];
+        this.prerequisiteStart = new int[count + 1];
+        this.needsFallback = new boolean[count];
+        int edges = 0;
+        for (Research r : this.researches) {
+            edges += r.getPrerequisiteWords().length;
+        }
+        this.prerequisiteWords = new int[edges];
+        this.prerequisiteMasks = new long[edges];
+        this.densePositions = new int[this.dense.length];
+        Arrays.fill(this.densePositions, -1);
+        Map<ResearchId, Integer> outsidePositions = new HashMap<>();
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            Research r = this.researches.get(i);
+            int[] words = r.getPrerequisiteWords();
+            System.arraycopy(words, 0, this.prerequisiteWords, offset, words.length);
+            System.arraycopy(r.getPrerequisiteMasks(), 0, this.prerequisiteMasks, offset, words.length);
+            offset += words.length;
+            this.ids[i] = r.getId().value;
+            this.prerequisiteStart[i + 1] = offset;
+            this.needsFallback[i] = !BitResearchSet.isDense(this.ids[i]) || r.getSparsePrerequisites().length > 0;
+            if (this.ids[i] >= 0 && this.ids[i] < this.dense.length) {
+                this.densePositions[this.ids[i]] = i;
+            } else {
+                outsidePositions.put(r.getId(), i);
+            }
+        }
+        this.sparsePositions = outsidePositions.isEmpty() ? Collections.emptyMap() : outsidePositions;
+    }
+
+    /**
+     * Sort the researches so every research comes after its prerequisites, prerequisites missing from this catalog are ignored.
+     *
+     * @return The sorted researches.
+     * @throws IllegalArgumentException If the prerequisites contain a cycle.
+     */
+    private List<Research> sort() {
+        Map<ResearchId, Integer> pending = new HashMap<>();
+        Deque<Research> ready = new ArrayDeque<>();
+        for (Research r : this.researches) {
+            int count = 0;
+            for (ResearchId prerequisite : r.getPrerequisites()) {
+                if (this.get(prerequisite) != null) {
+                    count++;
+                }
+            }
+            if (count == 0) {
+                ready.add(r);
+            } else {
+                pending.put(r.getId(), count);
+            }
+        }
+        List<Research> order = new ArrayList<>(this.researches.size());
+        while (!ready.isEmpty()) {
+            Research r = ready.poll();
+            order.add(r);
+            for (Research dependent : this.getDependents(r.getId())) {
+                if (pending.merge(dependent.getId(), -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() != this.researches.size()) {
+            throw new IllegalArgumentException("Research prerequisites contain a cycle.");
+        }
+        return Collections.unmodifiableList(order);
+    }
+
+    /**
+     * @return A new builder to create a catalog.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Retrieve a research from its id.
+     *
+     * @param id Research unique id.
+     * @return The matching research, or null if it is not in this catalog.
+     */
+    public Research get(final ResearchId id) {
+        int value = id.value;
+        if (value >= 0 && value < this.dense.length) {
+            return this.dense[value];
+        }
+        return this.sparse.get(id);
+    }
+
+    /**
+     * Find the position of a research in registration order.
+     *
+     * @param id Research id.
+     * @return The index of the research in getResearches, -1 if it is not in this catalog.
+     */
+    int indexOf(final ResearchId id) {
+        int value = id.value;
+        if (value >= 0 && value < this.densePositions.length) {
+            return this.densePositions[value];
+        }
+        Integer position = this.sparsePositions.get(id);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * @return The bound of the id values indexed directly, from 0 included to this value excluded.
+     */
+    int getDenseRange() {
+        return this.densePositions.length;
+    }
+
+    /**
+     * @param position Position in registration order.
+     * @return The id value of the research at this position.
+     */
+    int idAt(final int position) {
+        return this.ids[position];
+    }
+
+    /**
+     * @return All the researches in this catalog, in registration order.
+     */
+    public List<Research> getResearches() {
+        return this.researches;
+    }
+
+    /**
+     * @return All the researches in this catalog, every research comes after its prerequisites.
+     */
+    public List<Research> getTopologicalOrder() {
+        return this.topologicalOrder;
+    }
+
+    /**
+     * Retrieve the researches having a given research as direct prerequisite.
+     *
+     * @param id Research id, it does not need to be in this catalog.
+     * @return The dependent researches, empty if none.
+     */
+    public List<Research> getDependents(final ResearchId id) {
+        return this.dependents.getOrDefault(id, Collections.emptyList());
+    }
+
+    /**
+     * @return The ids of the researches without prerequisite.
+     */
+    public Set<ResearchId> getRoots() {
+        return this.roots;
+    }
+
+    /**
+     * Compute the state of every research in a single pass, the completed researches are read one 64 bits word at a time
+     * and every dense prerequisite word is checked with a single AND against its mask.
+     *
+     * @param done   Researches done by the player, null if none.
+     * @param states Receive the state ordinal of every research, in registration order, at least as long as this catalog.
+     */
+    void evaluateStates(final ResearchSet done, final byte[] states) {
+        int count = this.ids.length;
+        if (done == null) {
+            for (int i = 0; i < count; i++) {
+                states[i] = this.researches.get(i).getPrerequisites().isEmpty() ? AVAILABLE : UNAVAILABLE;
+            }
+            return;
+        }
+        if (!(done instanceof BitResearchSet)) {
+            for (int i = 0; i < count; i++) {
+                states[i] = this.fallbackState(i, done);
+            }
+            return;
+        }
+        // A single snapshot of the content, so the whole evaluation sees a consistent set of researches.
+        BitResearchSet.Content content = ((BitResearchSet) done).getContent();
+        for (int i = 0; i < count; i++) {
+            if (this.needsFallback[i]) {
+                states[i] = this.fallbackState(i, done);
+                continue;
+            }
+            if (content.contains(this.ids[i])) {
+                states[i] = DONE;
+                continue;
+            }
+            byte state = AVAILABLE;
+            for (int e = this.prerequisiteStart[i], end = this.prerequisiteStart[i + 1]; e < end; e++) {
+                int word = this.prerequisiteWords[e];
+                long mask = this.prerequisiteMasks[e];
+                if ((~content.word(word) & mask) != 0) {
+                    state = UNAVAILABLE;
+                    break;
+                }
+            }
+            states[i] = state;
+        }
+    }
+
+    private byte fallbackState(final int index, final ResearchSet done) {
+        Research research = this.researches.get(index);
+        if (done.contains(research.getId())) {
+            return DONE;
+        }
+        return research.prerequisitesDone(done) ? AVAILABLE : UNAVAILABLE;
+    }
+
+    /**
+     * @return The version of this catalog, a catalog built later always has a higher version.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @return The number of researches in this catalog.
+     */
+    public int size() {
+        return this.researches.size();
+    }
+
+    /**
+     * Collect researches to build a catalog, this class is not thread safe.
+     */
+    public static final class Builder {
+
+        private final Map<ResearchId, Research> researches = new LinkedHashMap<>();
+
+        private Builder() {
+            super();
+        }
+
+        /**
+         * Add a research, replacing any research previously added with the same id.
+         *
+         * @param research Research to add.
+         * @return This builder.
+         * @throws IllegalArgumentException If the research prerequisites create a cycle with the added researches.
+         */
+        public Builder add(final Research research) {
+            assert research != null;
+            if (this.reaches(research, research.getId())) {
+                throw new IllegalArgumentException("Research " + research.getId() + " prerequisites create a cycle.");
+            }
+            this.researches.put(research.getId(), research);
+            return this;
+        }
+
+        /**
+         * Add many researches without checking for cycles on every addition, i.e. when loading a whole catalog.
+         * Cycles are still detected when the catalog is built.
+         *
+         * @param researches Researches to add, replacing any research previously added with the same id.
+         * @return This builder.
+         */
+        public Builder addAll(final Collection<Research> researches) {
+            assert researches != null;
+            for (Research research : researches) {
+                this.researches.put(research.getId(), research);
+            }
+            return this;
+        }
+
+        /**
+         * Replace all the added researches.
+         *
+         * @param researches New content of this builder.
+         */
+        void reset(final Collection<Research> researches) {
+            this.researches.clear();
+            this.addAll(researches);
+        }
+
+        /**
+         * Check if a research id can be reached by following the prerequisites of a research.
+         *
+         * @param from Research to start from.
+         * @param target Id to look for.
+         * @return <code>true</code> if the id is a direct or indirect prerequisite.
+         */
+        private boolean reaches(final Research from, final ResearchId target) {
+            Set<ResearchId> visited = new HashSet<>();
+            Deque<ResearchId> toVisit = new ArrayDeque<>(from.getPrerequisites());
+            while (!toVisit.isEmpty()) {
+                ResearchId current = toVisit.pop();
+                if (current.equals(target)) {
+                    return true;
+                }
+                Research r = this.researches.get(current);
+                if (visited.add(current) && r != null) {
+                    toVisit.addAll(r.getPrerequisites());
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Freeze the added researches in an immutable catalog, later additions to this builder do not affect it.
+         *
+         * @return The built catalog.
+         * @throws IllegalArgumentException If researches added with addAll create a cycle.
+         */
+        public ResearchCatalog build() {
+            return new ResearchCatalog(this.researches.values());
+        }
+    }
+}
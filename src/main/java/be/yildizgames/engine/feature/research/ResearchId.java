@@ -26,16 +26,84 @@ package be.yildizgames.engine.feature.research;
 
 import be.yildizgames.common.model.ValueObject;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
+ * Research unique identifier.
+ * Instances for the ids from 0 to the cache size are canonicalized, so the same instance is returned for the same value
+ * and equals is resolved by the identity check.
+ * The cache starts with INITIAL_CACHE_SIZE entries and grows, up to MAX_CACHE_SIZE, to cover the registered research ids.
+ *
  * @author Grégory Van den Borre
  */
 public class ResearchId extends ValueObject {
 
+    private static final int INITIAL_CACHE_SIZE = 1024;
+
+    private static final int MAX_CACHE_SIZE = 1 << 16;
+
+    /**
+     * Canonical instances, replaced by a larger copy when a registered id does not fit.
+     */
+    private static volatile AtomicReferenceArray<ResearchId> cache = new AtomicReferenceArray<>(INITIAL_CACHE_SIZE);
+
+    /**
+     * Written in the empty slots of a cache being replaced, so no instance can be added to it after it has been copied.
+     */
+    private static final ResearchId SEALED = new ResearchId(-1);
+
     private ResearchId(int value) {
         super(value);
     }
 
     public static ResearchId valueOf(int value) {
-        return new ResearchId(value);
+        while (true) {
+            AtomicReferenceArray<ResearchId> instances = cache;
+            if (value < 0 || value >= instances.length()) {
+                return new ResearchId(value);
+            }
+            ResearchId id = instances.get(value);
+            if (id == null) {
+                id = new ResearchId(value);
+                if (!instances.compareAndSet(value, null, id)) {
+                    id = instances.get(value);
+                }
+            }
+            if (id != SEALED) {
+                return id;
+            }
+            // The cache is being grown, wait for the new one to be published.
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Make sure an id is cached, growing the cache if necessary.
+     *
+     * @param id Registered id.
+     * @return The canonical instance for the id value, the id itself if it cannot be cached.
+     */
+    static synchronized ResearchId register(ResearchId id) {
+        int value = id.value;
+        if (value < 0 || value >= MAX_CACHE_SIZE) {
+            return id;
+        }
+        AtomicReferenceArray<ResearchId> instances = cache;
+        if (value >= instances.length()) {
+            int size = Math.min(MAX_CACHE_SIZE, Integer.highestOneBit(value) << 1);
+            AtomicReferenceArray<ResearchId> grown = new AtomicReferenceArray<>(size);
+            for (int i = 0; i < instances.length(); i++) {
+                // Seal the empty slots so a concurrent valueOf cannot add an instance missing from the copy.
+                if (!instances.compareAndSet(i, null, SEALED)) {
+                    grown.set(i, instances.get(i));
+                }
+            }
+            instances = grown;
+            cache = grown;
+        }
+        if (instances.compareAndSet(value, null, id)) {
+            return id;
+        }
+        return instances.get(value);
     }
 }
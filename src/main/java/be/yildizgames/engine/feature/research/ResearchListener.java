@@ -26,6 +26,8 @@ package be.yildizgames.engine.feature.research;
 
 import be.yildizgames.common.model.PlayerId;
 
+import java.util.Collection;
+
 /**
  * Listener notified when a research even occurs.
  *
@@ -51,4 +53,24 @@ public interface ResearchListener {
     default void researchAlreadyDone(ResearchId research, PlayerId player) {
         //Does nothing.
     }
+
+    /**
+     * Notify when several researches are completed at once, by default notify them one by one.
+     *
+     * @param researches Researches done, never empty.
+     * @param player     Player that completed the researches.
+     */
+    default void researchesCompleted(Collection<ResearchId> researches, PlayerId player) {
+        researches.forEach(r -> this.researchCompleted(r, player));
+    }
+
+    /**
+     * Notify when several researches had already been done, by default notify them one by one.
+     *
+     * @param researches Researches already done, never empty.
+     * @param player     Player trying to make the researches.
+     */
+    default void researchesAlreadyDone(Collection<ResearchId> researches, PlayerId player) {
+        researches.forEach(r -> this.researchAlreadyDone(r, player));
+    }
 }
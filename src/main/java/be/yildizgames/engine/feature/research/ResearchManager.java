@@ -27,37 +27,170 @@ package be.yildizgames.engine.feature.research;
 import be.yildizgames.common.model.PlayerId;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
+ * Keep track of the researches completed by every player.
+ * This class is thread safe, operations on different players do not contend on a common lock,
+ * listeners are registered in a copy on write list and are notified on the calling thread.
+ * Operations can be instrumented with {@link #setMetrics(ResearchMetrics)}.
+ * A manager created with a research loader unloads its inactive players according to an eviction policy
+ * and loads them back on their next access, a write never lands on an unloaded player.
+ * Managers share no state, several game worlds can each use their own manager and catalog, built with {@link #builder()}.
+ * The instance returned by {@link #getInstance()} uses the global catalog of the registered researches.
+ * The catalog can be replaced at any time with {@link #setCatalog(ResearchCatalog)}, every call reads it once
+ * so it completes with the version it started with, data derived from the catalog is rebuilt on next access.
+ *
  * @author Grégory Van den Borre
  */
 public final class ResearchManager {
 
     private static final System.Logger LOGGER = System.getLogger(ResearchManager.class.getName());
 
-    private static final ResearchManager INSTANCE = new ResearchManager();
+    private static final ResearchManager INSTANCE = new ResearchManager(ResearchSet::bitSet, null, null, null, null);
 
     /**
      * List of all listeners.
      */
-    private final List<ResearchListener> listenerList = new ArrayList<>();
+    private final List<ResearchListener> listenerList = new CopyOnWriteArrayList<>();
+
+    /**
+     * Data derived from the players state, told about the changes listeners are not notified of.
+     */
+    private final List<Invalidation> invalidations = new CopyOnWriteArrayList<>();
+
+    /**
+     * Completed researches for every player, replaced as a whole by a bulk load.
+     */
+    private volatile Map<PlayerId, PlayerResearches> researches = new ConcurrentHashMap<>();
+
+    /**
+     * Create the research set for a new player.
+     */
+    private final Supplier<ResearchSet> storage;
+
+    /**
+     * Catalog used by this manager, null to use the global catalog of the registered researches.
+     */
+    private volatile ResearchCatalog catalog;
+
+    /**
+     * Instrumentation, null when disabled so the hot paths only pay a read and a branch.
+     */
+    private volatile ResearchMetrics metrics;
+
+    /**
+     * Load the players not in memory, null if players are never evicted.
+     */
+    private final ResearchLoader loader;
+
+    private final EvictionPolicy eviction;
+
+    /**
+     * Run the sweeps triggered by a load when the size bound is exceeded, null to run them on the loading thread.
+     */
+    private final Executor evictionExecutor;
 
-    private final Map<PlayerId, Set<ResearchId>> researches = new HashMap<>();
+    private final PlayerCacheStatistics cacheStatistics = new PlayerCacheStatistics();
 
-    private ResearchManager() {
+    /**
+     * Prevent concurrent eviction sweeps.
+     */
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private ResearchManager(final Supplier<ResearchSet> storage, final ResearchCatalog catalog, final ResearchLoader loader,
+                            final EvictionPolicy eviction, final Executor evictionExecutor) {
         super();
+        this.storage = storage;
+        this.catalog = catalog;
+        this.loader = loader;
+        this.eviction = eviction;
+        this.evictionExecutor = evictionExecutor;
     }
 
     public static ResearchManager getInstance() {
         return INSTANCE;
     }
 
+    /**
+     * Create a new research manager.
+     *
+     * @param storage Create the research set for every player, i.e. ResearchSet::bitSet or ResearchSet::hashSet.
+     * @return The created manager.
+     */
+    public static ResearchManager create(final Supplier<ResearchSet> storage) {
+        return builder().storage(storage).build();
+    }
+
+    /**
+     * Create a new research manager unloading its inactive players.
+     * Every access to a player not in memory, read or write, loads it first with the loader.
+     *
+     * @param storage Create the research set for every player, i.e. ResearchSet::bitSet or ResearchSet::hashSet.
+     * @param loader  Load the completed researches of a player not in memory.
+     * @param policy  Define when players are unloaded.
+     * @return The created manager.
+     */
+    public static ResearchManager create(final Supplier<ResearchSet> storage, final ResearchLoader loader, final EvictionPolicy policy) {
+        return builder().storage(storage).eviction(loader, policy).build();
+    }
+
+    /**
+     * @return A builder for a new manager, by default using bitsets and the global catalog, without eviction.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Publish a new catalog version for this manager, calls in progress complete with the previous one.
+     * The available researches and bonuses of the players are recomputed on their next access.
+     *
+     * @param catalog New catalog.
+     */
+    public void setCatalog(final ResearchCatalog catalog) {
+        assert catalog != null;
+        this.catalog = catalog;
+        this.invalidations.forEach(Invalidation::invalidateAll);
+    }
+
+    /**
+     * Recompute in the background the available researches and bonuses of the players who already requested them,
+     * so their next access after a catalog change does not pay for it.
+     *
+     * @param executor Executor running the rebuild.
+     * @return A future completed when all the players have been rebuilt.
+     */
+    public CompletableFuture<Void> rebuildDerivedData(final Executor executor) {
+        assert executor != null;
+        ResearchCatalog current = this.getCatalog();
+        Map<PlayerId, PlayerResearches> players = this.researches;
+        return CompletableFuture.runAsync(() -> players.values().forEach(p -> p.rebuild(current)), executor);
+    }
+
+    /**
+     * @return The catalog used by this manager.
+     */
+    public ResearchCatalog getCatalog() {
+        ResearchCatalog current = this.catalog;
+        return current == null ? Research.getCatalog() : current;
+    }
+
     /**
      * Add a research.
      *
@@ -65,15 +198,104 @@ public final class ResearchManager {
      * @param player Player doing the research.
      */
     public void addResearch(final ResearchId res, final PlayerId player) {
-        Set<ResearchId> list = this.researches.computeIfAbsent(player, PlayerId -> new HashSet<>());
-        if (list.contains(res)) {
-            this.listenerList.forEach(l -> l.researchAlreadyDone(res, player));
-        } else {
-            list.add(res);
-            this.listenerList.forEach(l -> l.researchCompleted(res, player));
+        ResearchMetrics m = this.metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        this.write(player, l -> l.add(res), added -> {
+            if (added) {
+                this.notifyListeners(m, l -> l.researchCompleted(res, player));
+            } else {
+                this.notifyListeners(m, l -> l.researchAlreadyDone(res, player));
+            }
+        });
+        if (m != null) {
+            m.operationCompleted(ResearchMetrics.Operation.ADD_RESEARCH, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Add several researches at once, listeners are notified once for all the completed researches
+     * and once for all the researches already done.
+     *
+     * @param player     Player doing the researches.
+     * @param researches Researches to add.
+     */
+    public void addResearches(final PlayerId player, final Collection<ResearchId> researches) {
+        assert researches != null;
+        ResearchMetrics m = this.metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        List<ResearchId> completed = new ArrayList<>(researches.size());
+        List<ResearchId> alreadyDone = new ArrayList<>(0);
+        this.write(player, l -> {
+            l.addAll(researches, completed, alreadyDone);
+            return null;
+        }, r -> {
+            if (!completed.isEmpty()) {
+                List<ResearchId> view = Collections.unmodifiableList(completed);
+                this.notifyListeners(m, l -> l.researchesCompleted(view, player));
+            }
+            if (!alreadyDone.isEmpty()) {
+                List<ResearchId> view = Collections.unmodifiableList(alreadyDone);
+                this.notifyListeners(m, l -> l.researchesAlreadyDone(view, player));
+            }
+        });
+        if (m != null) {
+            m.operationCompleted(ResearchMetrics.Operation.ADD_RESEARCHES, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Restore researches previously completed by a player, i.e. when loading persisted data, listeners are not notified.
+     *
+     * @param player     Player owning the researches.
+     * @param researches Researches to restore.
+     */
+    public void restoreResearches(final PlayerId player, final Collection<ResearchId> researches) {
+        assert researches != null;
+        ResearchMetrics m = this.metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        this.write(player, l -> {
+            l.restore(researches);
+            return null;
+        }, r -> this.invalidations.forEach(i -> i.invalidate(player)));
+        if (m != null) {
+            m.operationCompleted(ResearchMetrics.Operation.RESTORE_RESEARCHES, System.nanoTime() - start);
         }
     }
 
+    /**
+     * Load the researches of many players at once, i.e. at server startup, listeners are not notified.
+     * Players are split across the pool and their research sets are built directly in their final form,
+     * the loaded players become visible all at once when the load is complete, replacing any previous state for them.
+     * Researches completed for other players while loading may be lost, so this is meant to be called before the manager is used.
+     *
+     * @param researches Values of the research ids completed by every player.
+     * @param pool       Pool doing the work.
+     * @return The number of players loaded.
+     */
+    public int loadAll(final Map<PlayerId, int[]> researches, final ForkJoinPool pool) {
+        assert researches != null;
+        assert pool != null;
+        int size = researches.size();
+        PlayerId[] players = new PlayerId[size];
+        int[][] ids = new int[size][];
+        int i = 0;
+        for (Map.Entry<PlayerId, int[]> e : researches.entrySet()) {
+            players[i] = e.getKey();
+            ids[i] = e.getValue();
+            i++;
+        }
+        Map<PlayerId, PlayerResearches> current = this.researches;
+        ConcurrentHashMap<PlayerId, PlayerResearches> loaded = new ConcurrentHashMap<>(Math.max(16, (size + current.size()) * 4 / 3));
+        pool.invoke(new LoadTask(players, ids, 0, size, loaded));
+        current.forEach(loaded::putIfAbsent);
+        this.researches = loaded;
+        this.invalidations.forEach(Invalidation::invalidateAll);
+        if (this.loader != null && loaded.size() > this.eviction.getMaxPlayers()) {
+            this.scheduleEviction();
+        }
+        return size;
+    }
+
     /**
      * Add a listener for research event.
      *
@@ -83,30 +305,166 @@ public final class ResearchManager {
         this.listenerList.add(listener);
     }
 
+    /**
+     * Add data derived from the players state, invalidated when a player is restored, loaded or unloaded and when the catalog changes.
+     *
+     * @param invalidation Invalidation to call.
+     */
+    void addInvalidation(final Invalidation invalidation) {
+        this.invalidations.add(invalidation);
+    }
+
+    /**
+     * Unload the players idle for longer than the eviction policy timeout, then the least recently used ones
+     * until the size bound is respected. Size is checked on every load, idle players are only checked here
+     * so this method is expected to be called periodically, i.e. from a scheduled executor.
+     * A player whose listeners are still being notified of a change is kept, so an asynchronous listener
+     * persisting the changes must be done before its loader is called again for the player.
+     * Reaching the size bound sorts the players by last access, the sweep triggered by a load runs on the loading thread
+     * unless an eviction executor was given to the builder.
+     * A player accessed after the sweep started is kept.
+     *
+     * @return The number of players unloaded, 0 if this manager does not evict players or a sweep is already running.
+     */
+    public int evict() {
+        if (this.loader == null || !this.evicting.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int evicted = 0;
+            long now = System.nanoTime();
+            long idle = this.eviction.getIdleNanos();
+            if (idle != Long.MAX_VALUE) {
+                for (Map.Entry<PlayerId, PlayerResearches> e : this.researches.entrySet()) {
+                    long access = e.getValue().getLastAccess();
+                    if (now - access > idle && this.unload(e.getKey(), e.getValue(), access)) {
+                        evicted++;
+                    }
+                }
+            }
+            int max = this.eviction.getMaxPlayers();
+            if (this.researches.size() > max) {
+                // Shrink below the bound so the sort is amortized over several loads.
+                int target = max - max / 10;
+                // Access times are copied so the order cannot change while sorting.
+                List<Candidate> candidates = new ArrayList<>(this.researches.size());
+                this.researches.forEach((p, r) -> candidates.add(new Candidate(p, r, r.getLastAccess())));
+                candidates.sort(Comparator.comparingLong(c -> c.access - now));
+                for (int i = 0; i < candidates.size() && this.researches.size() > target; i++) {
+                    Candidate c = candidates.get(i);
+                    if (this.unload(c.player, c.researches, c.access)) {
+                        evicted++;
+                    }
+                }
+            }
+            this.cacheStatistics.evicted(evicted);
+            return evicted;
+        } finally {
+            this.evicting.set(false);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if this manager has a research loader, so it may not hold every player in memory.
+     */
+    public boolean hasLoader() {
+        return this.loader != null;
+    }
+
+    /**
+     * @return The hit, miss and eviction counters, always 0 for a manager without research loader.
+     */
+    public PlayerCacheStatistics getCacheStatistics() {
+        return this.cacheStatistics;
+    }
+
+    /**
+     * Set the instrumentation for this manager, the gauges are registered on the given metrics.
+     *
+     * @param metrics Metrics to record, ResearchMetrics.NONE to disable the instrumentation.
+     */
+    public void setMetrics(final ResearchMetrics metrics) {
+        assert metrics != null;
+        if (metrics == ResearchMetrics.NONE) {
+            this.metrics = null;
+        } else {
+            metrics.registerGauges(() -> this.researches.size(), this::computeFootprint);
+            this.metrics = metrics;
+        }
+    }
+
     /**
      * Retrieve the research state for a given research.
+     * Without research loader, this method does not allocate and does not register unknown players.
+     * With a research loader, a player not in memory is loaded and kept like for any other access.
      *
      * @param player Player to check.
      * @param id Research to check.
      * @return The state of the given research.
      */
     public ResearchState getResearchState(final PlayerId player, final ResearchId id) {
-        Set<ResearchId> list = this.researches.computeIfAbsent(player, PlayerId -> new HashSet<>());
-        if (list.contains(id)) {
+        ResearchMetrics m = this.metrics;
+        if (m == null) {
+            return this.computeResearchState(player, id, null);
+        }
+        long start = System.nanoTime();
+        ResearchState state = this.computeResearchState(player, id, m);
+        m.operationCompleted(ResearchMetrics.Operation.GET_RESEARCH_STATE, System.nanoTime() - start);
+        return state;
+    }
+
+    private ResearchState computeResearchState(final PlayerId player, final ResearchId id, final ResearchMetrics m) {
+        PlayerResearches playerResearches = this.find(player);
+        ResearchSet list = playerResearches == null ? null : playerResearches.getDone();
+        if (list != null && list.contains(id)) {
             return ResearchState.DONE;
         }
-        Research research = Research.get(id);
+        Research research = this.getCatalog().get(id);
         if(research == null) {
-            LOGGER.log(System.Logger.Level.WARNING,"Research {} not registered.", id);
+            LOGGER.log(System.Logger.Level.WARNING, "Research {0} not registered.", id);
+            if (m != null) {
+                m.researchNotRegistered(id);
+            }
             return ResearchState.UNAVAILABLE;
         }
-        if (!research.getPrerequisite().isPresent()) {
-            return ResearchState.AVAILABLE;
+        return research.prerequisitesDone(list) ? ResearchState.AVAILABLE : ResearchState.UNAVAILABLE;
+    }
+
+    /**
+     * Compute the state of every research in the catalog for a player in a single pass, i.e. to display a whole tech tree.
+     * This is much faster than calling getResearchState for every research and does not allocate.
+     *
+     * @param player Player to check.
+     * @param states Receive the state of the research at the same index in getCatalog().getResearches(),
+     *               as a ResearchState ordinal, see ResearchState.of.
+     * @return The number of states written, the catalog size.
+     * @throws IllegalArgumentException If the states array is shorter than the catalog.
+     */
+    public int getResearchStates(final PlayerId player, final byte[] states) {
+        assert states != null;
+        ResearchCatalog current = this.getCatalog();
+        if (states.length < current.size()) {
+            throw new IllegalArgumentException("States array too short: " + states.length + " for " + current.size() + " researches.");
+        }
+        ResearchMetrics m = this.metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        this.evaluateStates(player, current, states);
+        if (m != null) {
+            m.operationCompleted(ResearchMetrics.Operation.GET_RESEARCH_STATES, System.nanoTime() - start);
         }
+        return current.size();
+    }
 
-        return research.getPrerequisite()
-                .filter(list::contains)
-                .isPresent() ? ResearchState.AVAILABLE : ResearchState.UNAVAILABLE;
+    /**
+     * Compute the state of every research of a given catalog for a player.
+     *
+     * @param player  Player to check.
+     * @param catalog Catalog to evaluate, read by the caller.
+     * @param states  Receive the states, at least as long as the catalog.
+     */
+    void evaluateStates(final PlayerId player, final ResearchCatalog catalog, final byte[] states) {
+        PlayerResearches list = this.find(player);
+        catalog.evaluateStates(list == null ? null : list.getDone(), states);
     }
 
     /**
@@ -116,16 +474,334 @@ public final class ResearchManager {
      * @return <code>true</code> If the given player has completed to given research.
      */
     public boolean hasResearch(final PlayerId player, final ResearchId res) {
-        return this.researches.computeIfAbsent(player, PlayerId -> new HashSet<>()).contains(res);
+        ResearchMetrics m = this.metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        PlayerResearches list = this.find(player);
+        boolean result = list != null && list.getDone().contains(res);
+        if (m != null) {
+            m.operationCompleted(ResearchMetrics.Operation.HAS_RESEARCH, System.nanoTime() - start);
+        }
+        return result;
     }
 
     /**
      * Get all the researches for a player.
      * @param player Player to get the researches.
-     * @return All the researches completed for the given player.
+     * @return An immutable snapshot of the researches completed by the given player, it can be iterated from any thread
+     * and does not change when the player completes other researches.
      */
     public Set<ResearchId> getResearchList(final PlayerId player) {
-        return this.researches.getOrDefault(player, Collections.emptySet());
+        ResearchMetrics m = this.metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        PlayerResearches list = this.find(player);
+        Set<ResearchId> result = list == null ? Collections.emptySet() : list.getDone().snapshot();
+        if (m != null) {
+            m.operationCompleted(ResearchMetrics.Operation.GET_RESEARCH_LIST, System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    /**
+     * @return An unmodifiable view of all the players in memory.
+     */
+    public Set<PlayerId> getPlayers() {
+        return Collections.unmodifiableSet(this.researches.keySet());
+    }
+
+    /**
+     * Get the researches a player can do next, the set is updated incrementally when a research is completed.
+     * @param player Player to get the researches.
+     * @return An immutable set of the researches not done with all their prerequisites done.
+     */
+    public Set<ResearchId> getAvailableResearches(final PlayerId player) {
+        ResearchMetrics m = this.metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        ResearchCatalog current = this.getCatalog();
+        PlayerResearches list = this.find(player);
+        Set<ResearchId> result = list == null ? current.getRoots() : list.getAvailable(current);
+        if (m != null) {
+            m.operationCompleted(ResearchMetrics.Operation.GET_AVAILABLE_RESEARCHES, System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    /**
+     * Provide the bonuses given by the researches completed by a player, the view is updated incrementally
+     * on every completion so looking a bonus up is a single hash lookup.
+     *
+     * @param player Player to get the bonuses.
+     * @return An immutable view of the player bonuses, it does not change when the player completes researches.
+     */
+    public ResearchBonuses getBonuses(final PlayerId player) {
+        PlayerResearches list = this.find(player);
+        return list == null ? ResearchBonuses.EMPTY : list.getBonuses(this.getCatalog());
+    }
+
+    /**
+     * Find the researches of a player for a read.
+     *
+     * @param player Player to find.
+     * @return The player researches, null if the player is unknown and this manager has no loader.
+     */
+    private PlayerResearches find(final PlayerId player) {
+        PlayerResearches list = this.researches.get(player);
+        if (this.loader == null) {
+            return list;
+        }
+        if (list == null) {
+            return this.load(player);
+        }
+        this.cacheStatistics.hit();
+        list.touch();
+        return list;
+    }
+
+    /**
+     * Write the researches of a player, they are created if needed, then notify the change.
+     * The write is done under the player lock, and retried on the reloaded instance if the player was unloaded meanwhile.
+     * The player cannot be unloaded until the notification returns, so a listener persisting the change
+     * is done before the loader can be called again for this player.
+     *
+     * @param player Player to write.
+     * @param write  Write to do.
+     * @param notify Notification of the write result, outside of the player lock.
+     */
+    private <T> void write(final PlayerId player, final Function<PlayerResearches, T> write, final Consumer<T> notify) {
+        if (this.loader == null) {
+            notify.accept(write.apply(this.researches.computeIfAbsent(player, p -> new PlayerResearches(this.storage.get()))));
+            return;
+        }
+        while (true) {
+            PlayerResearches list = this.find(player);
+            T result;
+            synchronized (list) {
+                if (list.isUnloaded()) {
+                    continue;
+                }
+                result = write.apply(list);
+                list.startDispatch();
+            }
+            try {
+                notify.accept(result);
+            } finally {
+                synchronized (list) {
+                    list.endDispatch();
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * Unload a player if it was not accessed since its access time was read.
+     * The player lock is held while it is removed, so no write can land on the removed instance.
+     */
+    private boolean unload(final PlayerId player, final PlayerResearches list, final long access) {
+        boolean unloaded;
+        synchronized (list) {
+            unloaded = list.unload(access) && this.researches.remove(player, list);
+        }
+        if (unloaded) {
+            this.invalidations.forEach(i -> i.invalidate(player));
+        }
+        return unloaded;
+    }
+
+    private void scheduleEviction() {
+        if (this.evictionExecutor == null) {
+            this.evict();
+        } else {
+            this.evictionExecutor.execute(this::evict);
+        }
+    }
+
+    /**
+     * Load a player outside of any map lock, if two threads load the same player, the first one published is kept.
+     */
+    private PlayerResearches load(final PlayerId player) {
+        PlayerResearches loaded = new PlayerResearches(this.storage.get());
+        loaded.restore(this.loader.load(player));
+        this.cacheStatistics.miss();
+        PlayerResearches previous = this.researches.putIfAbsent(player, loaded);
+        if (previous != null) {
+            previous.touch();
+            return previous;
+        }
+        if (this.researches.size() > this.eviction.getMaxPlayers()) {
+            this.scheduleEviction();
+        }
+        return loaded;
+    }
+
+    private void notifyListeners(final ResearchMetrics m, final Consumer<ResearchListener> event) {
+        if (m == null) {
+            this.listenerList.forEach(event);
+            return;
+        }
+        for (ResearchListener listener : this.listenerList) {
+            long start = System.nanoTime();
+            event.accept(listener);
+            m.listenerNotified(listener, System.nanoTime() - start);
+        }
+    }
+
+    private long computeFootprint() {
+        long footprint = 0;
+        for (PlayerResearches list : this.researches.values()) {
+            footprint += list.getDone().footprint();
+        }
+        return footprint;
+    }
+
+    /**
+     * Build the research sets of a range of players, split in two until the range is small enough.
+     */
+    private final class LoadTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final int THRESHOLD = 4096;
+
+        private final transient PlayerId[] players;
+
+        private final int[][] ids;
+
+        private final int from;
+
+        private final int to;
+
+        private final transient Map<PlayerId, PlayerResearches> target;
+
+        private LoadTask(final PlayerId[] players, final int[][] ids, final int from, final int to, final Map<PlayerId, PlayerResearches> target) {
+            super();
+            this.players = players;
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+            this.target = target;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= THRESHOLD) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.target.put(this.players[i], PlayerResearches.load(ResearchManager.this.storage.get(), this.ids[i]));
+                }
+            } else {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new LoadTask(this.players, this.ids, this.from, middle, this.target),
+                        new LoadTask(this.players, this.ids, middle, this.to, this.target));
+            }
+        }
+    }
+
+    /**
+     * Data derived from the players state, invalidated by changes listeners are not notified of.
+     */
+    interface Invalidation {
+
+        /**
+         * @param player Player whose state changed.
+         */
+        void invalidate(PlayerId player);
+
+        /**
+         * Every player state may have changed.
+         */
+        void invalidateAll();
+    }
+
+    /**
+     * Player considered by an eviction sweep, with its last access time when the sweep started.
+     */
+    private static final class Candidate {
+
+        private final PlayerId player;
+
+        private final PlayerResearches researches;
+
+        private final long access;
+
+        private Candidate(final PlayerId player, final PlayerResearches researches, final long access) {
+            super();
+            this.player = player;
+            this.researches = researches;
+            this.access = access;
+        }
+    }
+
+    /**
+     * Build a research manager.
+     */
+    public static final class Builder {
+
+        private Supplier<ResearchSet> storage = ResearchSet::bitSet;
+
+        private ResearchCatalog catalog;
+
+        private ResearchLoader loader;
+
+        private EvictionPolicy eviction;
+
+        private Executor evictionExecutor;
+
+        private Builder() {
+            super();
+        }
+
+        /**
+         * @param storage Create the research set for every player, i.e. ResearchSet::bitSet or ResearchSet::hashSet.
+         * @return This builder.
+         */
+        public Builder storage(final Supplier<ResearchSet> storage) {
+            assert storage != null;
+            this.storage = storage;
+            return this;
+        }
+
+        /**
+         * @param catalog Catalog used by the manager instead of the global one.
+         * @return This builder.
+         */
+        public Builder catalog(final ResearchCatalog catalog) {
+            assert catalog != null;
+            this.catalog = catalog;
+            return this;
+        }
+
+        /**
+         * Unload inactive players and load them back on their next access.
+         *
+         * @param loader Load the completed researches of a player not in memory.
+         * @param policy Define when players are unloaded.
+         * @return This builder.
+         */
+        public Builder eviction(final ResearchLoader loader, final EvictionPolicy policy) {
+            assert loader != null;
+            assert policy != null;
+            this.loader = loader;
+            this.eviction = policy;
+            return this;
+        }
+
+        /**
+         * Run the eviction sweeps triggered by the size bound on an executor, so the thread loading a player does not sort the others.
+         *
+         * @param executor Executor running the sweeps.
+         * @return This builder.
+         */
+        public Builder evictionExecutor(final Executor executor) {
+            assert executor != null;
+            this.evictionExecutor = executor;
+            return this;
+        }
+
+        /**
+         * @return A new manager, sharing no state with the other managers.
+         */
+        public ResearchManager build() {
+            return new ResearchManager(this.storage, this.catalog, this.loader, this.eviction, this.evictionExecutor);
+        }
     }
 
     /**
@@ -148,7 +824,19 @@ public final class ResearchManager {
         /**
          * Research already done.
          */
-        DONE
+        DONE;
+
+        private static final ResearchState[] VALUES = values();
+
+        /**
+         * Retrieve a state from the ordinal written by getResearchStates.
+         *
+         * @param ordinal State ordinal.
+         * @return The matching state.
+         */
+        public static ResearchState of(final byte ordinal) {
+            return VALUES[ordinal];
+        }
     }
 
 }
@@ -0,0 +1,101 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Instrumentation hook for the research manager, implement it to bridge the manager to a monitoring system.
+ * Methods are called on the thread doing the operation and must not block.
+ * When no metrics are set on a manager, the only cost on the hot path is a field read and a branch.
+ *
+ * @author Grégory Van den Borre
+ */
+public interface ResearchMetrics {
+
+    /**
+     * Metrics ignoring everything, setting it on a manager disables the instrumentation.
+     */
+    ResearchMetrics NONE = new ResearchMetrics() {
+        @Override
+        public void operationCompleted(Operation operation, long nanos) {
+            // Nothing to record.
+        }
+
+        @Override
+        public void listenerNotified(ResearchListener listener, long nanos) {
+            // Nothing to record.
+        }
+    };
+
+    /**
+     * Called after every manager operation.
+     *
+     * @param operation Operation done.
+     * @param nanos     Time taken by the operation, listener notification included.
+     */
+    void operationCompleted(Operation operation, long nanos);
+
+    /**
+     * Called after every listener notification.
+     *
+     * @param listener Notified listener.
+     * @param nanos    Time taken by the listener.
+     */
+    void listenerNotified(ResearchListener listener, long nanos);
+
+    /**
+     * Called when the state of a research not registered in the catalog is requested.
+     *
+     * @param research Requested research.
+     */
+    default void researchNotRegistered(final ResearchId research) {
+        // Nothing by default.
+    }
+
+    /**
+     * Called once when the metrics are set on a manager, the suppliers compute their value when invoked.
+     *
+     * @param players   Number of players tracked by the manager.
+     * @param footprint Estimated heap size in bytes of the completed research sets.
+     */
+    default void registerGauges(final LongSupplier players, final LongSupplier footprint) {
+        // Nothing by default.
+    }
+
+    /**
+     * Instrumented manager operations.
+     */
+    enum Operation {
+        ADD_RESEARCH,
+        ADD_RESEARCHES,
+        RESTORE_RESEARCHES,
+        GET_RESEARCH_STATE,
+        GET_RESEARCH_STATES,
+        HAS_RESEARCH,
+        GET_RESEARCH_LIST,
+        GET_AVAILABLE_RESEARCHES
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.PlayerId;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Run the researches in progress, every player has a queue of researches done one after the other.
+ * The research in progress of every player is kept in a priority queue ordered by completion time,
+ * so advancing the time only costs the completions due, not a check of every player.
+ * Completed researches are added to the research manager, on the thread calling advance and outside of any lock,
+ * until then they are considered done so they cannot be queued again and their dependents can be queued.
+ * Time is provided by the caller in milliseconds, i.e. from its own game loop.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ResearchScheduler {
+
+    /**
+     * Manager receiving the completed researches.
+     */
+    private final ResearchManager manager;
+
+    /**
+     * Provide the time needed to complete a research.
+     */
+    private final Function<Research, Duration> duration;
+
+    /**
+     * Research in progress of every player, ordered by due time, cancelled entries are skipped when polled.
+     */
+    private final PriorityQueue<InProgress> inProgress = new PriorityQueue<>(Comparator.comparingLong(p -> p.due));
+
+    private final Map<PlayerId, PlayerQueue> queues = new HashMap<>();
+
+    /**
+     * Researches completed by advance and not yet added to the manager.
+     */
+    private final Map<PlayerId, Set<ResearchId>> completing = new HashMap<>();
+
+    private ResearchScheduler(final ResearchManager manager, final Function<Research, Duration> duration) {
+        super();
+        this.manager = manager;
+        this.duration = duration;
+    }
+
+    /**
+     * Create a scheduler.
+     *
+     * @param manager  Manager receiving the completed researches, its catalog provides the researches.
+     * @param duration Time needed to complete a research, i.e. computed from its price.
+     * @return The created scheduler.
+     */
+    public static ResearchScheduler create(final ResearchManager manager, final Function<Research, Duration> duration) {
+        assert manager != null;
+        assert duration != null;
+        return new ResearchScheduler(manager, duration);
+    }
+
+    /**
+     * Add a research at the end of a player queue, it starts immediately if the queue is empty.
+     *
+     * @param player   Player doing the research.
+     * @param research Research to queue.
+     * @param now      Current time in milliseconds.
+     * @return <code>true</code> if the research was queued, <code>false</code> if it is already done or queued.
+     * @throws IllegalArgumentException If the research is not in the catalog or a prerequisite is neither done nor queued.
+     */
+    public synchronized boolean enqueue(final PlayerId player, final ResearchId research, final long now) {
+        Research r = this.manager.getCatalog().get(research);
+        if (r == null) {
+            throw new IllegalArgumentException("Research " + research + " not registered.");
+        }
+        PlayerQueue queue = this.queues.get(player);
+        if (this.isDone(player, research) || (queue != null && queue.contains(research))) {
+            return false;
+        }
+        for (ResearchId prerequisite : r.getPrerequisites()) {
+            if (!this.isDone(player, prerequisite) && (queue == null || !queue.contains(prerequisite))) {
+                throw new IllegalArgumentException("Prerequisite " + prerequisite + " for " + research + " is not done nor queued.");
+            }
+        }
+        if (queue == null) {
+            queue = new PlayerQueue();
+            this.queues.put(player, queue);
+        }
+        queue.waiting.add(research);
+        if (queue.current == null) {
+            this.startNext(player, queue, now);
+        }
+        return true;
+    }
+
+    /**
+     * Remove a research from a player queue, with the queued researches depending on it.
+     * If it was in progress, the next research starts now.
+     *
+     * @param player   Player doing the research.
+     * @param research Research to cancel.
+     * @param now      Current time in milliseconds.
+     * @return <code>true</code> if the research was queued.
+     */
+    public synchronized boolean cancel(final PlayerId player, final ResearchId research, final long now) {
+        PlayerQueue queue = this.queues.get(player);
+        if (queue == null || !queue.contains(research)) {
+            return false;
+        }
+        if (queue.current != null && queue.current.research.equals(research)) {
+            queue.current.cancelled = true;
+            queue.current = null;
+        } else {
+            queue.waiting.remove(research);
+        }
+        Set<ResearchId> queued = new HashSet<>();
+        if (queue.current != null) {
+            queued.add(queue.current.research);
+        }
+        for (Iterator<ResearchId> it = queue.waiting.iterator(); it.hasNext(); ) {
+            ResearchId next = it.next();
+            if (this.prerequisitesQueuedOrDone(player, next, queued)) {
+                queued.add(next);
+            } else {
+                it.remove();
+            }
+        }
+        if (queue.current == null) {
+            this.startNext(player, queue, now);
+        }
+        return true;
+    }
+
+    /**
+     * Complete all the researches due, a completed research starts the next one of the queue at its completion time,
+     * so several researches of a queue can complete in a single call.
+     *
+     * @param now Current time in milliseconds.
+     * @return The number of completed researches.
+     */
+    public int advance(final long now) {
+        List<InProgress> completed = new ArrayList<>();
+        synchronized (this) {
+            InProgress head = this.inProgress.peek();
+            while (head != null && head.due <= now) {
+                this.inProgress.poll();
+                if (!head.cancelled) {
+                    completed.add(head);
+                    this.completing.computeIfAbsent(head.player, p -> new HashSet<>()).add(head.research);
+                    PlayerQueue queue = this.queues.get(head.player);
+                    queue.current = null;
+                    this.startNext(head.player, queue, head.due);
+                }
+                head = this.inProgress.peek();
+            }
+        }
+        for (InProgress c : completed) {
+            try {
+                this.manager.addResearch(c.research, c.player);
+            } finally {
+                this.completed(c);
+            }
+        }
+        return completed.size();
+    }
+
+    /**
+     * @param player Player to get the queue.
+     * @return The researches queued by a player, the first one is in progress.
+     */
+    public synchronized List<ResearchId> getQueue(final PlayerId player) {
+        PlayerQueue queue = this.queues.get(player);
+        if (queue == null) {
+            return Collections.emptyList();
+        }
+        List<ResearchId> result = new ArrayList<>(queue.waiting.size() + 1);
+        if (queue.current != null) {
+            result.add(queue.current.research);
+        }
+        result.addAll(queue.waiting);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @param player Player to get the research in progress.
+     * @return The time in milliseconds when the research in progress will be completed, empty if none is in progress.
+     */
+    public synchronized OptionalLong getDueTime(final PlayerId player) {
+        PlayerQueue queue = this.queues.get(player);
+        return queue == null || queue.current == null ? OptionalLong.empty() : OptionalLong.of(queue.current.due);
+    }
+
+    /**
+     * @return The number of researches in progress for all players.
+     */
+    public synchronized int getInProgressCount() {
+        // A queue is removed as soon as it has nothing in progress.
+        return this.queues.size();
+    }
+
+    private void startNext(final PlayerId player, final PlayerQueue queue, final long start) {
+        ResearchId next = queue.waiting.poll();
+        if (next == null) {
+            this.queues.remove(player);
+            return;
+        }
+        Research research = this.manager.getCatalog().get(next);
+        long millis = research == null ? 0 : this.duration.apply(research).toMillis();
+        queue.current = new InProgress(player, next, start + millis);
+        this.inProgress.add(queue.current);
+    }
+
+    private synchronized void completed(final InProgress research) {
+        Set<ResearchId> researches = this.completing.get(research.player);
+        researches.remove(research.research);
+        if (researches.isEmpty()) {
+            this.completing.remove(research.player);
+        }
+    }
+
+    private boolean isDone(final PlayerId player, final ResearchId research) {
+        Set<ResearchId> researches = this.completing.get(player);
+        return (researches != null && researches.contains(research)) || this.manager.hasResearch(player, research);
+    }
+
+    private boolean prerequisitesQueuedOrDone(final PlayerId player, final ResearchId research, final Set<ResearchId> queued) {
+        Research r = this.manager.getCatalog().get(research);
+        if (r == null) {
+            return false;
+        }
+        for (ResearchId prerequisite : r.getPrerequisites()) {
+            if (!queued.contains(prerequisite) && !this.isDone(player, prerequisite)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Researches queued by a player.
+     */
+    private static final class PlayerQueue {
+
+        private final ArrayDeque<ResearchId> waiting = new ArrayDeque<>();
+
+        private InProgress current;
+
+        private boolean contains(final ResearchId research) {
+            return (this.current != null && this.current.research.equals(research)) || this.waiting.contains(research);
+        }
+    }
+
+    /**
+     * Research in progress, completed at due time unless cancelled.
+     */
+    private static final class InProgress {
+
+        private final PlayerId player;
+
+        private final ResearchId research;
+
+        private final long due;
+
+        private boolean cancelled;
+
+        private InProgress(final PlayerId player, final ResearchId research, final long due) {
+            super();
+            this.player = player;
+            this.research = research;
+            this.due = due;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import java.util.Set;
+
+/**
+ * Storage for the researches completed by a single player.
+ * Implementations must be thread safe, reads are expected to be much more frequent than writes.
+ *
+ * @author Grégory Van den Borre
+ */
+public interface ResearchSet {
+
+    /**
+     * Create a set storing the research ids as bits in a long array, ids outside the dense range are kept in a sorted array.
+     *
+     * @return A new empty bitset backed research set.
+     */
+    static ResearchSet bitSet() {
+        return new BitResearchSet();
+    }
+
+    /**
+     * Create a set storing the research ids in a concurrent hash set.
+     *
+     * @return A new empty hash backed research set.
+     */
+    static ResearchSet hashSet() {
+        return new HashResearchSet();
+    }
+
+    /**
+     * Add a research to this set.
+     *
+     * @param research Research to add.
+     * @return <code>true</code> if the research was not already in this set.
+     */
+    boolean add(ResearchId research);
+
+    /**
+     * Check if a research is in this set.
+     *
+     * @param research Research to check.
+     * @return <code>true</code> if the research is in this set.
+     */
+    boolean contains(ResearchId research);
+
+    /**
+     * Provide 64 researches at once, bit i of the word is set if the research with id 64 * index + i is in this set.
+     *
+     * @param index Word index, positive.
+     * @return The word for the given index.
+     */
+    default long word(final int index) {
+        long word = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (this.contains(ResearchId.valueOf((index << 6) + bit))) {
+                word |= 1L << bit;
+            }
+        }
+        return word;
+    }
+
+    /**
+     * @return The number of researches in this set.
+     */
+    int size();
+
+    /**
+     * @return An unmodifiable view of this set, it reflects the later additions.
+     */
+    Set<ResearchId> asSet();
+
+    /**
+     * @return An immutable copy of the current content of this set, later additions are not visible in it.
+     */
+    Set<ResearchId> snapshot();
+
+    /**
+     * @return An estimation of the heap size of this set in bytes, the canonical research ids are not counted.
+     */
+    long footprint();
+}
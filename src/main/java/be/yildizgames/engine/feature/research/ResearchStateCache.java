@@ -0,0 +1,276 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.PlayerId;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoize the research states of the players, the state of every research of a player is computed in a single pass
+ * on the first query, then queries are a read of an array indexed by research id until the player state changes.
+ * The cache is registered as a listener of the manager, completions invalidate the states of their player only,
+ * restored, bulk loaded and unloaded players and catalog changes are invalidated by the manager.
+ * The number of cached players is bounded, arbitrary players are dropped when the bound is exceeded
+ * so the query path keeps no access bookkeeping. Researches with an id outside of the catalog dense range are not cached.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ResearchStateCache implements ResearchListener {
+
+    /**
+     * Number of invalidation generation counters, players are spread on them by hash.
+     */
+    private static final int STRIPES = 64;
+
+    private static final int DEFAULT_MAX_PLAYERS = 10_000;
+
+    /**
+     * State of an id value not in the catalog.
+     */
+    private static final byte ABSENT = -1;
+
+    private final ResearchManager manager;
+
+    private final int maxPlayers;
+
+    private final Map<PlayerId, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on every invalidation, a state computed while its stripe changed is not kept.
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    private ResearchStateCache(final ResearchManager manager, final int maxPlayers) {
+        super();
+        this.manager = manager;
+        this.maxPlayers = maxPlayers;
+    }
+
+    /**
+     * Create a cache holding up to 10 000 players and register it on the manager.
+     *
+     * @param manager Manager to query.
+     * @return The created cache.
+     */
+    public static ResearchStateCache create(final ResearchManager manager) {
+        return create(manager, DEFAULT_MAX_PLAYERS);
+    }
+
+    /**
+     * Create a cache and register it on the manager.
+     *
+     * @param manager    Manager to query.
+     * @param maxPlayers Maximum number of players cached.
+     * @return The created cache.
+     */
+    public static ResearchStateCache create(final ResearchManager manager, final int maxPlayers) {
+        assert manager != null;
+        assert maxPlayers > 0;
+        ResearchStateCache cache = new ResearchStateCache(manager, maxPlayers);
+        manager.addListener(cache);
+        manager.addInvalidation(new ResearchManager.Invalidation() {
+
+            @Override
+            public void invalidate(final PlayerId player) {
+                cache.invalidate(player);
+            }
+
+            @Override
+            public void invalidateAll() {
+                cache.invalidateAll();
+            }
+        });
+        return cache;
+    }
+
+    /**
+     * Retrieve the state of a research, same result as ResearchManager.getResearchState.
+     *
+     * @param player Player to check.
+     * @param id     Research to check.
+     * @return The state of the research.
+     */
+    public ResearchManager.ResearchState getResearchState(final PlayerId player, final ResearchId id) {
+        ResearchCatalog catalog = this.manager.getCatalog();
+        Entry entry = this.entries.get(player);
+        boolean hit = entry != null && entry.catalog == catalog;
+        if (!hit) {
+            this.misses.increment();
+            entry = this.compute(player, catalog);
+        }
+        int value = id.value;
+        if (value >= 0 && value < entry.states.length && entry.states[value] != ABSENT) {
+            if (hit) {
+                this.hits.increment();
+            }
+            return ResearchManager.ResearchState.of(entry.states[value]);
+        }
+        return this.manager.getResearchState(player, id);
+    }
+
+    /**
+     * Drop the cached states of a player.
+     *
+     * @param player Player to invalidate.
+     */
+    public void invalidate(final PlayerId player) {
+        this.generations.incrementAndGet(stripe(player));
+        if (this.entries.remove(player) != null) {
+            this.invalidations.increment();
+        }
+    }
+
+    /**
+     * Drop all the cached states.
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            this.generations.incrementAndGet(i);
+        }
+        this.entries.clear();
+    }
+
+    @Override
+    public void researchCompleted(final ResearchId research, final PlayerId player) {
+        this.invalidate(player);
+    }
+
+    @Override
+    public void researchesCompleted(final Collection<ResearchId> researches, final PlayerId player) {
+        this.invalidate(player);
+    }
+
+    @Override
+    public void researchAlreadyDone(final ResearchId research, final PlayerId player) {
+        // Nothing changed.
+    }
+
+    @Override
+    public void researchesAlreadyDone(final Collection<ResearchId> researches, final PlayerId player) {
+        // Nothing changed.
+    }
+
+    /**
+     * @return The number of queries answered from the cached states.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return The number of queries needing to compute the states of a player.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return The number of player states dropped after a completion or an invalidate call.
+     */
+    public long getInvalidations() {
+        return this.invalidations.sum();
+    }
+
+    /**
+     * @return The number of players with cached states.
+     */
+    public int getCachedPlayers() {
+        return this.entries.size();
+    }
+
+    /**
+     * Compute and keep the states of a player, if the player was invalidated meanwhile, the states are used for this query only.
+     */
+    private Entry compute(final PlayerId player, final ResearchCatalog catalog) {
+        int stripe = stripe(player);
+        long generation = this.generations.get(stripe);
+        byte[] states = new byte[catalog.size()];
+        this.manager.evaluateStates(player, catalog, states);
+        byte[] byValue = new byte[catalog.getDenseRange()];
+        Arrays.fill(byValue, ABSENT);
+        for (int i = 0; i < states.length; i++) {
+            int value = catalog.idAt(i);
+            if (value >= 0 && value < byValue.length) {
+                byValue[value] = states[i];
+            }
+        }
+        Entry entry = new Entry(catalog, byValue);
+        this.entries.put(player, entry);
+        if (this.generations.get(stripe) != generation) {
+            this.entries.remove(player, entry);
+        } else if (this.entries.size() > this.maxPlayers) {
+            this.shrink();
+        }
+        return entry;
+    }
+
+    /**
+     * Drop arbitrary players below the bound, so the next ones are amortized over several misses.
+     */
+    private void shrink() {
+        int target = this.maxPlayers - this.maxPlayers / 10;
+        Iterator<Entry> it = this.entries.values().iterator();
+        while (it.hasNext() && this.entries.size() > target) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static int stripe(final PlayerId player) {
+        return player.hashCode() & (STRIPES - 1);
+    }
+
+    /**
+     * States of every research of a catalog for a player.
+     */
+    private static final class Entry {
+
+        private final ResearchCatalog catalog;
+
+        /**
+         * Research states indexed by id value, ABSENT for the values not in the catalog.
+         */
+        private final byte[] states;
+
+        private Entry(final ResearchCatalog catalog, final byte[] states) {
+            super();
+            this.catalog = catalog;
+            this.states = states;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Metrics implementation keeping the values in memory, to be polled by a monitoring system.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ResearchStatistics implements ResearchMetrics {
+
+    private final Map<Operation, LatencyHistogram> operations = new EnumMap<>(Operation.class);
+
+    private final Map<ResearchListener, LatencyHistogram> listeners = new ConcurrentHashMap<>();
+
+    private final LongAdder notRegistered = new LongAdder();
+
+    private volatile LongSupplier players = () -> 0;
+
+    private volatile LongSupplier footprint = () -> 0;
+
+    private ResearchStatistics() {
+        super();
+        for (Operation operation : Operation.values()) {
+            this.operations.put(operation, LatencyHistogram.create());
+        }
+    }
+
+    public static ResearchStatistics create() {
+        return new ResearchStatistics();
+    }
+
+    @Override
+    public void operationCompleted(final Operation operation, final long nanos) {
+        this.operations.get(operation).record(nanos);
+    }
+
+    @Override
+    public void listenerNotified(final ResearchListener listener, final long nanos) {
+        this.listeners.computeIfAbsent(listener, l -> LatencyHistogram.create()).record(nanos);
+    }
+
+    @Override
+    public void researchNotRegistered(final ResearchId research) {
+        this.notRegistered.increment();
+    }
+
+    @Override
+    public void registerGauges(final LongSupplier players, final LongSupplier footprint) {
+        this.players = players;
+        this.footprint = footprint;
+    }
+
+    /**
+     * @param operation Operation to get.
+     * @return The latency histogram for the operation, its count is the number of calls.
+     */
+    public LatencyHistogram getOperation(final Operation operation) {
+        return this.operations.get(operation);
+    }
+
+    /**
+     * @return An unmodifiable view of the dispatch time of every notified listener.
+     */
+    public Map<ResearchListener, LatencyHistogram> getListeners() {
+        return Collections.unmodifiableMap(this.listeners);
+    }
+
+    /**
+     * @return The number of state requests for researches not registered.
+     */
+    public long getNotRegisteredCount() {
+        return this.notRegistered.sum();
+    }
+
+    /**
+     * @return The number of players currently tracked by the manager.
+     */
+    public long getPlayerCount() {
+        return this.players.getAsLong();
+    }
+
+    /**
+     * @return The estimated heap size in bytes of the completed research sets, computed on every call.
+     */
+    public long getFootprint() {
+        return this.footprint.getAsLong();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.persistence;
+
+import be.yildizgames.common.model.BonusId;
+import be.yildizgames.engine.feature.research.Research;
+import be.yildizgames.engine.feature.research.ResearchCatalog;
+import be.yildizgames.engine.feature.research.ResearchId;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compile text research definitions into a binary catalog file.
+ * Every line is: id;price;bonus;prerequisites, the bonus is empty for a research without bonus,
+ * prerequisites are comma separated ids and can be empty. Every id must be defined only once.
+ * Empty lines and lines starting with # are ignored.
+ * Usage: java be.yildizgames.engine.feature.research.persistence.ResearchCatalogCompiler definitions.txt catalog.bin
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ResearchCatalogCompiler {
+
+    private static final String FIELD_SEPARATOR = ";";
+
+    private static final String PREREQUISITE_SEPARATOR = ",";
+
+    private ResearchCatalogCompiler() {
+        super();
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: ResearchCatalogCompiler <definitions> <catalog>");
+            System.exit(1);
+        }
+        ResearchCatalog catalog = compile(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println(catalog.size() + " researches written to " + args[1]);
+    }
+
+    /**
+     * Compile a definition file.
+     *
+     * @param definitions Text definitions.
+     * @param output      Binary catalog to write.
+     * @return The compiled catalog.
+     * @throws IOException If a file cannot be read or written.
+     * @throws IllegalArgumentException If a definition is invalid or the prerequisites contain a cycle.
+     */
+    public static ResearchCatalog compile(final Path definitions, final Path output) throws IOException {
+        ResearchCatalog catalog;
+        try (Reader reader = Files.newBufferedReader(definitions, StandardCharsets.UTF_8)) {
+            catalog = parse(reader);
+        }
+        ResearchCatalogFile.write(catalog, output);
+        return catalog;
+    }
+
+    /**
+     * Parse text definitions.
+     *
+     * @param reader Definitions to parse.
+     * @return The parsed catalog, its researches are not registered in the global catalog.
+     * @throws IOException If the definitions cannot be read.
+     * @throws IllegalArgumentException If a definition is invalid, an id is defined twice or the prerequisites contain a cycle.
+     */
+    public static ResearchCatalog parse(final Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        List<Research> researches = new ArrayList<>();
+        Map<ResearchId, Integer> definedAt = new HashMap<>();
+        int number = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(FIELD_SEPARATOR, -1);
+            if (fields.length != 4) {
+                throw new IllegalArgumentException("Line " + number + ": expected 4 fields, found " + fields.length + ".");
+            }
+            try {
+                List<ResearchId> prerequisites = new ArrayList<>();
+                for (String prerequisite : fields[3].split(PREREQUISITE_SEPARATOR)) {
+                    if (!prerequisite.isBlank()) {
+                        prerequisites.add(ResearchId.valueOf(Integer.parseInt(prerequisite.trim())));
+                    }
+                }
+                ResearchId id = ResearchId.valueOf(Integer.parseInt(fields[0].trim()));
+                Integer previous = definedAt.putIfAbsent(id, number);
+                if (previous != null) {
+                    throw new IllegalArgumentException("Line " + number + ": duplicate research id " + id.value + ", already defined line " + previous + ".");
+                }
+                String bonus = fields[2].trim();
+                researches.add(Research.create(
+                        id,
+                        Float.parseFloat(fields[1].trim()),
+                        bonus.isEmpty() ? null : BonusId.valueOf(Integer.parseInt(bonus)),
+                        prerequisites));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + number + ": " + e.getMessage(), e);
+            }
+        }
+        return ResearchCatalog.builder().addAll(researches).build();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.persistence;
+
+import be.yildizgames.common.model.BonusId;
+import be.yildizgames.engine.feature.research.Research;
+import be.yildizgames.engine.feature.research.ResearchCatalog;
+import be.yildizgames.engine.feature.research.ResearchId;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary research catalog, to be built once with ResearchCatalogCompiler and loaded at startup.
+ * Layout: magic, version, research count, CRC32 of the records, then for every research in topological order:
+ * id, price, bonus, prerequisite count, prerequisite ids; all values are 4 bytes, big endian.
+ * A research without bonus is written with Integer.MIN_VALUE as bonus.
+ * Researches read from a file are not registered in the global catalog.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ResearchCatalogFile {
+
+    private static final int MAGIC = 0x59524331;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = Integer.BYTES * 4;
+
+    private static final int NO_BONUS = Integer.MIN_VALUE;
+
+    private ResearchCatalogFile() {
+        super();
+    }
+
+    /**
+     * Write a catalog in a temporary file and move it over the previous one, so a reader never sees a partial file.
+     *
+     * @param catalog Catalog to write.
+     * @param file    Destination file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(final ResearchCatalog catalog, final Path file) throws IOException {
+        assert catalog != null;
+        assert file != null;
+        List<Research> researches = catalog.getTopologicalOrder();
+        int size = HEADER_SIZE;
+        for (Research r : researches) {
+            size += Integer.BYTES * (4 + r.getPrerequisites().size());
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.position(HEADER_SIZE);
+        for (Research r : researches) {
+            buffer.putInt(r.getId().value)
+                    .putFloat(r.getPrice())
+                    .putInt(r.getBonus() == null ? NO_BONUS : r.getBonus().value)
+                    .putInt(r.getPrerequisites().size());
+            for (ResearchId prerequisite : r.getPrerequisites()) {
+                buffer.putInt(prerequisite.value);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, size - HEADER_SIZE);
+        buffer.putInt(0, MAGIC).putInt(Integer.BYTES, VERSION).putInt(Integer.BYTES * 2, researches.size()).putInt(Integer.BYTES * 3, (int) crc.getValue());
+        buffer.rewind();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a catalog, the file is memory mapped and decoded in a single sequential pass.
+     *
+     * @param file File to read.
+     * @return The catalog.
+     * @throws IOException If the file cannot be read, has an unsupported version or is corrupted.
+     */
+    public static ResearchCatalog read(final Path file) throws IOException {
+        assert file != null;
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Invalid research catalog " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Invalid research catalog " + file);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported research catalog version " + version + " in " + file);
+        }
+        int count = buffer.getInt();
+        int expectedCrc = buffer.getInt();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Corrupted research catalog " + file);
+        }
+        try {
+            List<Research> researches = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ResearchId id = ResearchId.valueOf(buffer.getInt());
+                float price = buffer.getFloat();
+                int bonusValue = buffer.getInt();
+                BonusId bonus = bonusValue == NO_BONUS ? null : BonusId.valueOf(bonusValue);
+                int prerequisiteCount = buffer.getInt();
+                List<ResearchId> prerequisites = new ArrayList<>(prerequisiteCount);
+                for (int p = 0; p < prerequisiteCount; p++) {
+                    prerequisites.add(ResearchId.valueOf(buffer.getInt()));
+                }
+                researches.add(Research.create(id, price, bonus, prerequisites));
+            }
+            return ResearchCatalog.builder().addAll(researches).build();
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Invalid research catalog " + file, e);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.persistence;
+
+import be.yildizgames.common.model.PlayerId;
+import be.yildizgames.engine.feature.research.ResearchId;
+import be.yildizgames.engine.feature.research.ResearchListener;
+import be.yildizgames.engine.feature.research.ResearchManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Persist the completed researches in a directory, as a compacted snapshot and an append-only journal.
+ * Register the journal as a research listener to record every completion, replay it at startup to restore the manager,
+ * and compact it regularly to keep the journal short.
+ * The journal is written through a memory mapped window, layout: magic, version, record count (long), then records
+ * made of a player id and a research id (int).
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ResearchJournal implements ResearchListener, Closeable {
+
+    private static final int MAGIC = 0x59524A31;
+
+    private static final int VERSION = 1;
+
+    private static final int COUNT_POSITION = Integer.BYTES * 2;
+
+    private static final int HEADER_SIZE = COUNT_POSITION + Long.BYTES;
+
+    private static final int RECORD_SIZE = Integer.BYTES * 2;
+
+    /**
+     * Size of the mapped region records are written to, a new window is mapped when it is full.
+     */
+    private static final long WINDOW_SIZE = 8L * 1024 * 1024;
+
+    private static final String JOURNAL_FILE = "research.journal";
+
+    private static final String SNAPSHOT_FILE = "research.snapshot";
+
+    private final Path snapshot;
+
+    private final SyncPolicy policy;
+
+    private final FileChannel channel;
+
+    /**
+     * Mapped header, holding the record count.
+     */
+    private final MappedByteBuffer header;
+
+    /**
+     * Mapped region receiving the records.
+     */
+    private MappedByteBuffer window;
+
+    /**
+     * File position of the window first byte.
+     */
+    private long windowStart;
+
+    /**
+     * Number of records in the journal.
+     */
+    private long count;
+
+    private long lastSync = System.nanoTime();
+
+    private boolean dirty;
+
+    private ResearchJournal(final Path directory, final SyncPolicy policy) throws IOException {
+        super();
+        this.snapshot = directory.resolve(SNAPSHOT_FILE);
+        this.policy = policy;
+        Path journal = directory.resolve(JOURNAL_FILE);
+        boolean exists = Files.exists(journal) && Files.size(journal) >= HEADER_SIZE;
+        this.channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.header = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (exists) {
+            if (this.header.getInt(0) != MAGIC || this.header.getInt(Integer.BYTES) != VERSION) {
+                this.channel.close();
+                throw new IOException("Invalid research journal " + journal);
+            }
+            this.count = this.header.getLong(COUNT_POSITION);
+        } else {
+            this.header.putInt(0, MAGIC).putInt(Integer.BYTES, VERSION).putLong(COUNT_POSITION, 0);
+            this.header.force();
+        }
+        this.mapWindow(this.recordPosition());
+    }
+
+    /**
+     * Open the journal in a directory, creating the files if they do not exist.
+     *
+     * @param directory Directory holding the journal and snapshot files, it must exist.
+     * @param policy    Durability policy.
+     * @return The opened journal.
+     * @throws IOException If the journal cannot be opened or is corrupted.
+     */
+    public static ResearchJournal open(final Path directory, final SyncPolicy policy) throws IOException {
+        assert directory != null;
+        assert policy != null;
+        return new ResearchJournal(directory, policy);
+    }
+
+    /**
+     * Restore the snapshot and then the journal records in a manager, listeners are not notified.
+     *
+     * @param manager Manager to fill.
+     * @throws IOException If the files cannot be read.
+     */
+    public synchronized void replay(final ResearchManager manager) throws IOException {
+        SnapshotFile.read(this.snapshot, manager);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        buffer.flip();
+        long position = HEADER_SIZE;
+        long end = this.recordPosition();
+        while (position < end) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                while (buffer.hasRemaining()) {
+                    if (this.channel.read(buffer, position + buffer.position()) < 0) {
+                        throw new IOException("Unexpected end of research journal.");
+                    }
+                }
+                buffer.flip();
+            }
+            int player = buffer.getInt();
+            int research = buffer.getInt();
+            manager.restoreResearches(PlayerId.valueOf(player), List.of(ResearchId.valueOf(research)));
+            position += RECORD_SIZE;
+        }
+    }
+
+    /**
+     * Write a snapshot of the manager and empty the journal.
+     * Records appended while the snapshot is written wait for the compaction to end, replaying a record already
+     * in the snapshot has no effect, so the manager can be modified during the compaction.
+     * A manager with a research loader does not hold the unloaded players, so it cannot be compacted.
+     *
+     * @param manager Manager to save, holding every player.
+     * @throws IOException If the snapshot cannot be written.
+     * @throws IllegalStateException If the manager has a research loader.
+     */
+    public synchronized void compact(final ResearchManager manager) throws IOException {
+        if (manager.hasLoader()) {
+            throw new IllegalStateException("Cannot compact a manager evicting players, their researches would be lost.");
+        }
+        SnapshotFile.write(this.snapshot, manager);
+        this.count = 0;
+        this.header.putLong(COUNT_POSITION, 0);
+        this.header.force();
+        this.mapWindow(HEADER_SIZE);
+    }
+
+    /**
+     * Force the written records to the storage device.
+     */
+    public synchronized void sync() {
+        if (this.dirty) {
+            this.window.force();
+            this.header.force();
+            this.dirty = false;
+        }
+        this.lastSync = System.nanoTime();
+    }
+
+    /**
+     * @return The number of records in the journal since the last compaction.
+     */
+    public synchronized long getRecordCount() {
+        return this.count;
+    }
+
+    @Override
+    public void researchCompleted(final ResearchId research, final PlayerId player) {
+        synchronized (this) {
+            this.append(player, research);
+            this.syncIfNeeded();
+        }
+    }
+
+    @Override
+    public void researchesCompleted(final Collection<ResearchId> researches, final PlayerId player) {
+        synchronized (this) {
+            for (ResearchId research : researches) {
+                this.append(player, research);
+            }
+            this.syncIfNeeded();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.sync();
+        this.channel.close();
+    }
+
+    private void append(final PlayerId player, final ResearchId research) {
+        long position = this.recordPosition();
+        if (position + RECORD_SIZE > this.windowStart + WINDOW_SIZE) {
+            this.window.force();
+            try {
+                this.mapWindow(position);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        int offset = (int) (position - this.windowStart);
+        this.window.putInt(offset, player.value);
+        this.window.putInt(offset + Integer.BYTES, research.value);
+        this.count++;
+        this.header.putLong(COUNT_POSITION, this.count);
+        this.dirty = true;
+    }
+
+    private void syncIfNeeded() {
+        if (this.policy.mustSync(this.lastSync, System.nanoTime())) {
+            this.sync();
+        }
+    }
+
+    private long recordPosition() {
+        return HEADER_SIZE + this.count * RECORD_SIZE;
+    }
+
+    private void mapWindow(final long start) throws IOException {
+        this.windowStart = start;
+        this.window = this.channel.map(FileChannel.MapMode.READ_WRITE, start, WINDOW_SIZE);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.persistence;
+
+import be.yildizgames.common.model.PlayerId;
+import be.yildizgames.engine.feature.research.ResearchId;
+import be.yildizgames.engine.feature.research.ResearchManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compacted copy of the researches for all the players.
+ * Layout: magic, version, player count, then for every player: player id, research count, research ids; all values are int.
+ *
+ * @author Grégory Van den Borre
+ */
+final class SnapshotFile {
+
+    private static final int MAGIC = 0x59525331;
+
+    private static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private SnapshotFile() {
+        super();
+    }
+
+    /**
+     * Write the snapshot in a temporary file and move it over the previous one, so a crash never leaves a partial snapshot.
+     *
+     * @param file    Snapshot file.
+     * @param manager Manager to save.
+     * @throws IOException If the file cannot be written.
+     */
+    static void write(final Path file, final ResearchManager manager) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            List<PlayerId> players = new ArrayList<>(manager.getPlayers());
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(players.size());
+            for (PlayerId player : players) {
+                Set<ResearchId> researches = manager.getResearchList(player);
+                List<ResearchId> ids = new ArrayList<>(researches);
+                flushIfFull(channel, buffer, Integer.BYTES * 2);
+                buffer.putInt(player.value).putInt(ids.size());
+                for (ResearchId id : ids) {
+                    flushIfFull(channel, buffer, Integer.BYTES);
+                    buffer.putInt(id.value);
+                }
+            }
+            flush(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restore the snapshot content in a manager, nothing is done if the file does not exist.
+     *
+     * @param file    Snapshot file.
+     * @param manager Manager to fill.
+     * @throws IOException If the file cannot be read or is corrupted.
+     */
+    static void read(final Path file, final ResearchManager manager) throws IOException {
+        if (Files.notExists(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.flip();
+            fill(channel, buffer, Integer.BYTES * 3);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Invalid research snapshot " + file);
+            }
+            int players = buffer.getInt();
+            List<ResearchId> ids = new ArrayList<>();
+            for (int p = 0; p < players; p++) {
+                fill(channel, buffer, Integer.BYTES * 2);
+                PlayerId player = PlayerId.valueOf(buffer.getInt());
+                int count = buffer.getInt();
+                ids.clear();
+                for (int i = 0; i < count; i++) {
+                    fill(channel, buffer, Integer.BYTES);
+                    ids.add(ResearchId.valueOf(buffer.getInt()));
+                }
+                manager.restoreResearches(player, ids);
+            }
+        }
+    }
+
+    private static void flushIfFull(final FileChannel channel, final ByteBuffer buffer, final int needed) throws IOException {
+        if (buffer.remaining() < needed) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Make sure the buffer has enough bytes to read, reading more from the channel if necessary.
+     */
+    static void fill(final FileChannel channel, final ByteBuffer buffer, final int needed) throws IOException {
+        if (buffer.remaining() >= needed) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < needed) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of research file.");
+            }
+        }
+        buffer.flip();
+    }
+}
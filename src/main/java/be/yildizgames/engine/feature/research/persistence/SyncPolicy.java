@@ -0,0 +1,73 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.persistence;
+
+import java.time.Duration;
+
+/**
+ * Define when the journal is forced to the storage device.
+ * Written records are in the OS page cache as soon as they are appended, so they survive a process crash,
+ * the policy only matters for an OS crash or a power loss.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class SyncPolicy {
+
+    /**
+     * Minimum time between two syncs, 0 to sync every batch.
+     */
+    private final long intervalNanos;
+
+    private SyncPolicy(final long intervalNanos) {
+        super();
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * Sync after every listener notification, a batch of researches is synced once.
+     *
+     * @return The policy.
+     */
+    public static SyncPolicy everyBatch() {
+        return new SyncPolicy(0);
+    }
+
+    /**
+     * Sync on write when the last sync is older than the interval, records written after the last sync are synced on the next write,
+     * on an explicit sync, or when the journal is closed.
+     *
+     * @param interval Minimum time between two syncs.
+     * @return The policy.
+     */
+    public static SyncPolicy every(final Duration interval) {
+        assert interval != null;
+        assert !interval.isNegative();
+        return new SyncPolicy(interval.toNanos());
+    }
+
+    boolean mustSync(final long lastSync, final long now) {
+        return now - lastSync >= this.intervalNanos;
+    }
+}
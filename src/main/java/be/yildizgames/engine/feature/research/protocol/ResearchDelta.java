@@ -0,0 +1,100 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol;
+
+import be.yildizgames.engine.feature.research.ResearchId;
+
+import java.util.List;
+
+/**
+ * Changes in the researches of a player between two revisions.
+ * A full delta contains all the researches and replaces the client state, otherwise the researches are added to the client state,
+ * which must be at the from revision of the same epoch.
+ *
+ * @author Grégory Van den Borre
+ */
+public class ResearchDelta {
+
+    /**
+     * Identify the server revision sequence, revisions from different epochs cannot be compared.
+     */
+    public final long epoch;
+
+    /**
+     * Revision the changes apply to, ignored for a full delta.
+     */
+    public final long fromRevision;
+
+    /**
+     * Revision after the changes are applied.
+     */
+    public final long toRevision;
+
+    /**
+     * <code>true</code> if the researches are the whole state.
+     */
+    public final boolean full;
+
+    /**
+     * Researches completed between the two revisions, or all the researches for a full delta.
+     */
+    public final List<ResearchId> researches;
+
+    public ResearchDelta(long epoch, long fromRevision, long toRevision, boolean full, List<ResearchId> researches) {
+        this.epoch = epoch;
+        this.fromRevision = fromRevision;
+        this.toRevision = toRevision;
+        this.full = full;
+        this.researches = List.copyOf(researches);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        ResearchDelta that = (ResearchDelta) o;
+
+        return epoch == that.epoch
+                && fromRevision == that.fromRevision
+                && toRevision == that.toRevision
+                && full == that.full
+                && researches.equals(that.researches);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(epoch);
+        result = 31 * result + Long.hashCode(fromRevision);
+        result = 31 * result + Long.hashCode(toRevision);
+        result = 31 * result + (full ? 1 : 0);
+        result = 31 * result + researches.hashCode();
+        return result;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol;
+
+import be.yildizgames.common.model.PlayerId;
+import be.yildizgames.engine.feature.research.ResearchId;
+import be.yildizgames.engine.feature.research.ResearchListener;
+import be.yildizgames.engine.feature.research.ResearchManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server side of the research synchronization.
+ * Registered as a listener, it gives every player a revision incremented on each completed research and keeps the last completions,
+ * so a client can be sent only the changes since its revision. When the client is too far behind, or comes from another epoch,
+ * the full research list is sent instead.
+ * The history of a player is kept until forget is called, i.e. when the player logs out or is evicted from the manager.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ResearchDeltaTracker implements ResearchListener {
+
+    /**
+     * Revision of a client without any state.
+     */
+    public static final long NO_REVISION = -1;
+
+    private final ResearchManager manager;
+
+    /**
+     * Number of completions kept for every player.
+     */
+    private final int historySize;
+
+    private final long epoch = ThreadLocalRandom.current().nextLong();
+
+    private final Map<PlayerId, History> histories = new ConcurrentHashMap<>();
+
+    /**
+     * Number of completions for all players, a new history starts at this revision so it never reuses a revision
+     * given to a client before its player was forgotten.
+     */
+    private final AtomicLong completions = new AtomicLong();
+
+    private ResearchDeltaTracker(final ResearchManager manager, final int historySize) {
+        super();
+        this.manager = manager;
+        this.historySize = historySize;
+    }
+
+    /**
+     * Create a tracker, it must be registered as a listener in the manager.
+     *
+     * @param manager     Manager providing the full research lists.
+     * @param historySize Number of completions kept per player, a client further behind receives the full list.
+     * @return The created tracker.
+     */
+    public static ResearchDeltaTracker create(final ResearchManager manager, final int historySize) {
+        assert manager != null;
+        assert historySize > 0;
+        return new ResearchDeltaTracker(manager, historySize);
+    }
+
+    /**
+     * @return The epoch of the revisions produced by this tracker.
+     */
+    public long getEpoch() {
+        return this.epoch;
+    }
+
+    /**
+     * Provide the current revision for a player.
+     *
+     * @param player Player to check.
+     * @return The player revision.
+     */
+    public long getRevision(final PlayerId player) {
+        History history = this.histories.get(player);
+        return history == null ? 0 : history.getRevision();
+    }
+
+    /**
+     * Drop the history of a player, i.e. when it is evicted from the manager, to keep the memory bounded by the active players.
+     * The next revisions of the player are greater than the forgotten ones, so its clients receive the full list on their next synchronization.
+     *
+     * @param player Player to forget.
+     */
+    public void forget(final PlayerId player) {
+        this.histories.remove(player);
+    }
+
+    /**
+     * @return The number of players with a history.
+     */
+    public int getTrackedPlayers() {
+        return this.histories.size();
+    }
+
+    /**
+     * Compute the changes a client needs to be up to date.
+     *
+     * @param player   Player to synchronize.
+     * @param epoch    Epoch of the client state.
+     * @param revision Revision of the client state, NO_REVISION if the client has no state.
+     * @return The changes since the given revision, or the full list.
+     */
+    public ResearchDelta changesSince(final PlayerId player, final long epoch, final long revision) {
+        History history = this.histories.get(player);
+        if (epoch == this.epoch && revision >= 0) {
+            List<ResearchId> changes = history == null
+                    ? (revision == 0 ? Collections.emptyList() : null)
+                    : history.since(revision);
+            if (changes != null) {
+                return new ResearchDelta(this.epoch, revision, revision + changes.size(), false, changes);
+            }
+        }
+        long current = history == null ? 0 : history.getRevision();
+        return new ResearchDelta(this.epoch, NO_REVISION, current, true, new ArrayList<>(this.manager.getResearchList(player)));
+    }
+
+    @Override
+    public void researchCompleted(final ResearchId research, final PlayerId player) {
+        this.histories.computeIfAbsent(player, this::newHistory).add(research);
+        this.completions.incrementAndGet();
+    }
+
+    @Override
+    public void researchesCompleted(final Collection<ResearchId> researches, final PlayerId player) {
+        History history = this.histories.computeIfAbsent(player, this::newHistory);
+        synchronized (history) {
+            researches.forEach(history::add);
+        }
+        this.completions.addAndGet(researches.size());
+    }
+
+    private History newHistory(final PlayerId player) {
+        return new History(this.historySize, this.completions.get());
+    }
+
+    /**
+     * Last completed researches for a player, in a ring buffer.
+     */
+    private static final class History {
+
+        private final int[] ids;
+
+        /**
+         * First revision of this history, nothing is known before it.
+         */
+        private final long base;
+
+        /**
+         * Revision of the last completion, the research completed at revision r is at index (r - 1) % size.
+         */
+        private long revision;
+
+        private History(final int size, final long base) {
+            super();
+            this.ids = new int[size];
+            this.base = base;
+            this.revision = base;
+        }
+
+        private synchronized long getRevision() {
+            return this.revision;
+        }
+
+        private synchronized void add(final ResearchId research) {
+            this.ids[(int) (this.revision % this.ids.length)] = research.value;
+            this.revision++;
+        }
+
+        /**
+         * @return The researches completed after the given revision, null if they are not all kept.
+         */
+        private synchronized List<ResearchId> since(final long from) {
+            long count = this.revision - from;
+            if (from < this.base || count < 0 || count > this.ids.length) {
+                return null;
+            }
+            List<ResearchId> result = new ArrayList<>((int) count);
+            for (long r = from; r < this.revision; r++) {
+                result.add(ResearchId.valueOf(this.ids[(int) (r % this.ids.length)]));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol;
+
+import be.yildizgames.engine.feature.research.ResearchId;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Client side of the research synchronization, keep the researches of a player up to date from the received deltas.
+ * This class is not thread safe.
+ *
+ * @author Grégory Van den Borre
+ */
+public final class ResearchReplica {
+
+    private final Set<ResearchId> researches = new LinkedHashSet<>();
+
+    private long epoch;
+
+    private long revision = ResearchDeltaTracker.NO_REVISION;
+
+    private ResearchReplica() {
+        super();
+    }
+
+    /**
+     * @return A new replica without any state, its first delta must be a full one.
+     */
+    public static ResearchReplica create() {
+        return new ResearchReplica();
+    }
+
+    /**
+     * Apply a delta received from the server.
+     *
+     * @param delta Delta to apply.
+     * @return <code>false</code> if the delta does not match the replica revision and was ignored, the full list must be requested.
+     */
+    public boolean apply(final ResearchDelta delta) {
+        assert delta != null;
+        if (delta.full) {
+            this.researches.clear();
+        } else if (delta.epoch != this.epoch || delta.fromRevision != this.revision) {
+            return false;
+        }
+        this.researches.addAll(delta.researches);
+        this.epoch = delta.epoch;
+        this.revision = delta.toRevision;
+        return true;
+    }
+
+    /**
+     * @return The epoch to send when requesting the changes.
+     */
+    public long getEpoch() {
+        return this.epoch;
+    }
+
+    /**
+     * @return The revision to send when requesting the changes, NO_REVISION before the first full delta.
+     */
+    public long getRevision() {
+        return this.revision;
+    }
+
+    /**
+     * @return An unmodifiable view of the researches.
+     */
+    public Set<ResearchId> getResearches() {
+        return Collections.unmodifiableSet(this.researches);
+    }
+}
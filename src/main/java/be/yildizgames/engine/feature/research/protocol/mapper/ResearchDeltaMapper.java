@@ -0,0 +1,94 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol.mapper;
+
+import be.yildizgames.common.mapping.ObjectMapper;
+import be.yildizgames.common.mapping.Separator;
+import be.yildizgames.engine.feature.research.ResearchId;
+import be.yildizgames.engine.feature.research.protocol.ResearchDelta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text format: epoch, from revision, to revision, full flag (1 or 0) and research list, separated by VAR_SEPARATOR.
+ * An empty research list is an empty field.
+ *
+ * @author Grégory Van den Borre
+ */
+public class ResearchDeltaMapper implements ObjectMapper<ResearchDelta> {
+
+    private static final ResearchDeltaMapper INSTANCE = new ResearchDeltaMapper();
+
+    private ResearchDeltaMapper() {
+        super();
+    }
+
+    public static ResearchDeltaMapper getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public ResearchDelta from(String s) {
+        assert s != null;
+        String[] v = s.split(Separator.VAR_SEPARATOR, -1);
+        try {
+            List<ResearchId> researches = new ArrayList<>();
+            ResearchStreamDecoder.getInstance().decodeResearches(v[4], researches::add);
+            return new ResearchDelta(
+                    Long.parseLong(v[0]),
+                    Long.parseLong(v[1]),
+                    Long.parseLong(v[2]),
+                    parseFull(v[3]),
+                    researches);
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            throw new ResearchMappingException(e);
+        }
+    }
+
+    @Override
+    public String to(ResearchDelta delta) {
+        assert delta != null;
+        return delta.epoch
+                + Separator.VAR_SEPARATOR
+                + delta.fromRevision
+                + Separator.VAR_SEPARATOR
+                + delta.toRevision
+                + Separator.VAR_SEPARATOR
+                + (delta.full ? "1" : "0")
+                + Separator.VAR_SEPARATOR
+                + (delta.researches.isEmpty() ? "" : ResearchListMapper.getInstance().to(delta.researches));
+    }
+
+    private static boolean parseFull(String s) {
+        if ("1".equals(s)) {
+            return true;
+        }
+        if ("0".equals(s)) {
+            return false;
+        }
+        throw new ResearchMappingException("Invalid full flag: " + s);
+    }
+}
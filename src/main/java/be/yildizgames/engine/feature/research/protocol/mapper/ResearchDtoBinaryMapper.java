@@ -0,0 +1,88 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol.mapper;
+
+import be.yildizgames.engine.feature.research.ResearchId;
+import be.yildizgames.engine.feature.research.protocol.ResearchDto;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary counterpart of ResearchDtoMapper, the research id is written as a zigzag variable length int.
+ *
+ * @author Grégory Van den Borre
+ */
+public class ResearchDtoBinaryMapper {
+
+    private static final ResearchDtoBinaryMapper INSTANCE = new ResearchDtoBinaryMapper();
+
+    private ResearchDtoBinaryMapper() {
+        super();
+    }
+
+    public static ResearchDtoBinaryMapper getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Compute the number of bytes needed to encode a dto.
+     *
+     * @param dto Dto to encode.
+     * @return The encoded size in bytes.
+     */
+    public final int encodedSize(final ResearchDto dto) {
+        assert dto != null;
+        return VarInt.sizeSigned(dto.research.value);
+    }
+
+    /**
+     * Encode a dto in a buffer, starting at its position.
+     *
+     * @param dto    Dto to encode.
+     * @param buffer Buffer receiving the data.
+     */
+    public final void to(final ResearchDto dto, final ByteBuffer buffer) {
+        assert dto != null;
+        assert buffer != null;
+        VarInt.putSigned(buffer, dto.research.value);
+    }
+
+    /**
+     * Decode a dto from a buffer, starting at its position.
+     *
+     * @param buffer Buffer containing the data, its position is moved after the decoded dto.
+     * @return The decoded dto.
+     * @throws ResearchMappingException If the data is invalid.
+     */
+    public final ResearchDto from(final ByteBuffer buffer) {
+        assert buffer != null;
+        try {
+            return new ResearchDto(ResearchId.valueOf(VarInt.getSigned(buffer)));
+        } catch (BufferUnderflowException e) {
+            throw VarInt.underflow(e);
+        }
+    }
+}
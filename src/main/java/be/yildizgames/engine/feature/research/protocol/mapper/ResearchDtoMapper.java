@@ -25,7 +25,6 @@
 package be.yildizgames.engine.feature.research.protocol.mapper;
 
 import be.yildizgames.common.mapping.ObjectMapper;
-import be.yildizgames.common.mapping.Separator;
 import be.yildizgames.engine.feature.research.protocol.ResearchDto;
 
 /**
@@ -47,12 +46,7 @@ public class ResearchDtoMapper implements ObjectMapper<ResearchDto> {
     @Override
     public ResearchDto from(String s) {
         assert s != null;
-        String[] v = s.split(Separator.OBJECTS_SEPARATOR);
-        try {
-            return new ResearchDto(ResearchIdMapper.getInstance().from(v[0]));
-        } catch (IndexOutOfBoundsException e) {
-            throw new ResearchMappingException(e);
-        }
+        return ResearchStreamDecoder.getInstance().decodeDto(s);
     }
 
     @Override
@@ -0,0 +1,196 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol.mapper;
+
+import be.yildizgames.engine.feature.research.ResearchId;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Binary counterpart of ResearchListMapper, the ids are written in ascending order, duplicates are removed.
+ * Two layouts are used, whichever is the smallest:
+ * DELTA: count, first id (zigzag), then the difference with the previous id, all as variable length ints.
+ * BITSET: first word index, word count as variable length ints, then the 64 bits words; only for positive ids.
+ *
+ * @author Grégory Van den Borre
+ */
+public class ResearchListBinaryMapper {
+
+    private static final ResearchListBinaryMapper INSTANCE = new ResearchListBinaryMapper();
+
+    private static final byte DELTA = 0;
+
+    private static final byte BITSET = 1;
+
+    private ResearchListBinaryMapper() {
+        super();
+    }
+
+    public static ResearchListBinaryMapper getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Compute the number of bytes needed to encode a list.
+     *
+     * @param researches Researches to encode.
+     * @return The encoded size in bytes.
+     */
+    public final int encodedSize(final Collection<ResearchId> researches) {
+        assert researches != null;
+        int[] ids = sortedIds(researches);
+        return 1 + Math.min(deltaSize(ids), bitsetSize(ids));
+    }
+
+    /**
+     * Encode researches in a buffer, starting at its position.
+     *
+     * @param researches Researches to encode.
+     * @param buffer     Buffer receiving the data, it must have encodedSize bytes remaining.
+     */
+    public final void to(final Collection<ResearchId> researches, final ByteBuffer buffer) {
+        assert researches != null;
+        assert buffer != null;
+        int[] ids = sortedIds(researches);
+        if (bitsetSize(ids) < deltaSize(ids)) {
+            buffer.put(BITSET);
+            int first = ids[0] >>> 6;
+            int last = ids[ids.length - 1] >>> 6;
+            VarInt.put(buffer, first);
+            VarInt.put(buffer, last - first + 1);
+            long word = 0;
+            int current = first;
+            for (int id : ids) {
+                int index = id >>> 6;
+                if (index != current) {
+                    buffer.putLong(word);
+                    for (int skipped = current + 1; skipped < index; skipped++) {
+                        buffer.putLong(0);
+                    }
+                    word = 0;
+                    current = index;
+                }
+                word |= 1L << id;
+            }
+            buffer.putLong(word);
+        } else {
+            buffer.put(DELTA);
+            VarInt.put(buffer, ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                if (i == 0) {
+                    VarInt.putSigned(buffer, ids[0]);
+                } else {
+                    VarInt.put(buffer, ids[i] - ids[i - 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Decode researches from a buffer, starting at its position.
+     *
+     * @param buffer Buffer containing the data, its position is moved after the decoded list.
+     * @return The decoded researches, in ascending order.
+     * @throws ResearchMappingException If the data is invalid.
+     */
+    public final List<ResearchId> from(final ByteBuffer buffer) {
+        assert buffer != null;
+        try {
+            byte layout = buffer.get();
+            if (layout == DELTA) {
+                int count = VarInt.get(buffer);
+                checkCount(count, buffer.remaining());
+                List<ResearchId> result = new ArrayList<>(count);
+                int previous = 0;
+                for (int i = 0; i < count; i++) {
+                    previous = i == 0 ? VarInt.getSigned(buffer) : previous + VarInt.get(buffer);
+                    result.add(ResearchId.valueOf(previous));
+                }
+                return result;
+            }
+            if (layout == BITSET) {
+                int first = VarInt.get(buffer);
+                int words = VarInt.get(buffer);
+                checkCount(words, buffer.remaining() / Long.BYTES);
+                List<ResearchId> result = new ArrayList<>();
+                for (int w = 0; w < words; w++) {
+                    long word = buffer.getLong();
+                    while (word != 0) {
+                        result.add(ResearchId.valueOf(((first + w) << 6) + Long.numberOfTrailingZeros(word)));
+                        word &= word - 1;
+                    }
+                }
+                return result;
+            }
+            throw new ResearchMappingException("Unknown research list layout " + layout);
+        } catch (BufferUnderflowException e) {
+            throw VarInt.underflow(e);
+        }
+    }
+
+    private static void checkCount(final int count, final int max) {
+        if (count < 0 || count > max) {
+            throw new ResearchMappingException("Invalid research count " + count);
+        }
+    }
+
+    private static int[] sortedIds(final Collection<ResearchId> researches) {
+        int[] ids = new int[researches.size()];
+        int i = 0;
+        for (ResearchId id : researches) {
+            ids[i++] = id.value;
+        }
+        Arrays.sort(ids);
+        int unique = 0;
+        for (int j = 0; j < ids.length; j++) {
+            if (j == 0 || ids[j] != ids[j - 1]) {
+                ids[unique++] = ids[j];
+            }
+        }
+        return unique == ids.length ? ids : Arrays.copyOf(ids, unique);
+    }
+
+    private static int deltaSize(final int[] ids) {
+        int size = VarInt.size(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            size += i == 0 ? VarInt.sizeSigned(ids[0]) : VarInt.size(ids[i] - ids[i - 1]);
+        }
+        return size;
+    }
+
+    private static int bitsetSize(final int[] ids) {
+        if (ids.length == 0 || ids[0] < 0) {
+            return Integer.MAX_VALUE;
+        }
+        int first = ids[0] >>> 6;
+        int words = (ids[ids.length - 1] >>> 6) - first + 1;
+        return VarInt.size(first) + VarInt.size(words) + words * Long.BYTES;
+    }
+}
@@ -29,7 +29,10 @@ import be.yildizgames.common.mapping.CollectionMapper;
 import be.yildizgames.common.mapping.ObjectMapper;
 import be.yildizgames.engine.feature.research.ResearchId;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * @author Grégory Van den Borre
@@ -51,7 +54,13 @@ public class ResearchListMapper implements ObjectMapper<Collection<ResearchId>>
 
     @Override
     public final Collection<ResearchId> from(String s) {
-        return this.mapper.from(s);
+        assert s != null;
+        if (s.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ResearchId> result = new ArrayList<>();
+        ResearchStreamDecoder.getInstance().decodeResearches(s, result::add);
+        return result;
     }
 
     @Override
@@ -0,0 +1,248 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol.mapper;
+
+import be.yildizgames.common.mapping.Separator;
+import be.yildizgames.engine.feature.research.ResearchId;
+import be.yildizgames.engine.feature.research.protocol.ResearchDto;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Decode the text produced by ResearchListMapper and ResearchDtoMapper without creating intermediate strings.
+ * Ids are parsed in place from a CharSequence or from ASCII bytes in a ByteBuffer and pushed to a sink.
+ * The accepted input and the errors are the same as the string mappers.
+ *
+ * @author Grégory Van den Borre
+ */
+public class ResearchStreamDecoder {
+
+    private static final ResearchStreamDecoder INSTANCE = new ResearchStreamDecoder();
+
+    private static final char COLLECTION_SEPARATOR = Separator.COLLECTION_SEPARATOR.charAt(0);
+
+    private ResearchStreamDecoder() {
+        super();
+    }
+
+    public static ResearchStreamDecoder getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Decode a research list.
+     *
+     * @param s    Text to decode, as produced by ResearchListMapper.
+     * @param sink Receive every research id value, in text order.
+     * @return The number of decoded ids.
+     * @throws ResearchMappingException If the text is invalid.
+     */
+    public final int decodeList(final CharSequence s, final IntConsumer sink) {
+        assert s != null;
+        return this.decodeList(s, 0, s.length(), sink);
+    }
+
+    /**
+     * Decode a research list from a part of a text.
+     *
+     * @param s     Text containing the list.
+     * @param start First char of the list, inclusive.
+     * @param end   Last char of the list, exclusive.
+     * @param sink  Receive every research id value, in text order.
+     * @return The number of decoded ids.
+     * @throws ResearchMappingException If the text is invalid.
+     */
+    public final int decodeList(final CharSequence s, final int start, final int end, final IntConsumer sink) {
+        assert s != null;
+        assert sink != null;
+        int last = trimTrailingSeparators(s, start, end);
+        if (last == start) {
+            return 0;
+        }
+        int count = 0;
+        int from = start;
+        for (int i = start; i <= last; i++) {
+            if (i == last || s.charAt(i) == COLLECTION_SEPARATOR) {
+                sink.accept(parseInt(s, from, i));
+                count++;
+                from = i + 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Decode a research list to research ids.
+     *
+     * @param s    Text to decode, as produced by ResearchListMapper.
+     * @param sink Receive every research id, in text order.
+     * @return The number of decoded ids.
+     * @throws ResearchMappingException If the text is invalid.
+     */
+    public final int decodeResearches(final CharSequence s, final Consumer<ResearchId> sink) {
+        assert sink != null;
+        return this.decodeList(s, (int v) -> sink.accept(ResearchId.valueOf(v)));
+    }
+
+    /**
+     * Decode a research list from ASCII bytes between the buffer position and limit, the position is moved to the limit.
+     *
+     * @param buffer Buffer containing the text.
+     * @param sink   Receive every research id value, in text order.
+     * @return The number of decoded ids.
+     * @throws ResearchMappingException If the text is invalid.
+     */
+    public final int decodeList(final ByteBuffer buffer, final IntConsumer sink) {
+        assert buffer != null;
+        int count = this.decodeList(new AsciiSequence(buffer), sink);
+        buffer.position(buffer.limit());
+        return count;
+    }
+
+    /**
+     * Decode a research dto.
+     *
+     * @param s Text to decode, as produced by ResearchDtoMapper.
+     * @return The decoded dto.
+     * @throws ResearchMappingException If the text is invalid.
+     */
+    public final ResearchDto decodeDto(final CharSequence s) {
+        assert s != null;
+        int end = indexOf(s, Separator.OBJECTS_SEPARATOR);
+        return new ResearchDto(ResearchId.valueOf(parseInt(s, 0, end < 0 ? s.length() : end)));
+    }
+
+    /**
+     * String.split ignores the trailing empty values, do the same.
+     */
+    private static int trimTrailingSeparators(final CharSequence s, final int start, final int end) {
+        int last = end;
+        while (last > start && s.charAt(last - 1) == COLLECTION_SEPARATOR) {
+            last--;
+        }
+        return last;
+    }
+
+    private static int indexOf(final CharSequence s, final String pattern) {
+        int max = s.length() - pattern.length();
+        for (int i = 0; i <= max; i++) {
+            int j = 0;
+            while (j < pattern.length() && s.charAt(i + j) == pattern.charAt(j)) {
+                j++;
+            }
+            if (j == pattern.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parse an int with the same rules as Integer.parseInt, without creating a substring.
+     */
+    private static int parseInt(final CharSequence s, final int start, final int end) {
+        if (start >= end) {
+            throw new ResearchMappingException("Empty research id.");
+        }
+        int i = start;
+        boolean negative = false;
+        char first = s.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (i == end) {
+                throw invalid(s, start, end);
+            }
+        }
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int multiplyLimit = limit / 10;
+        int result = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(s.charAt(i), 10);
+            if (digit < 0 || result < multiplyLimit) {
+                throw invalid(s, start, end);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw invalid(s, start, end);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static ResearchMappingException invalid(final CharSequence s, final int start, final int end) {
+        return new ResearchMappingException("Invalid research id: " + s.subSequence(start, end));
+    }
+
+    /**
+     * View of the ASCII bytes of a buffer as chars, without copy.
+     */
+    private static final class AsciiSequence implements CharSequence {
+
+        private final ByteBuffer buffer;
+
+        private final int offset;
+
+        private final int length;
+
+        private AsciiSequence(final ByteBuffer buffer) {
+            this(buffer, buffer.position(), buffer.remaining());
+        }
+
+        private AsciiSequence(final ByteBuffer buffer, final int offset, final int length) {
+            super();
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return this.length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return (char) (this.buffer.get(this.offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return new AsciiSequence(this.buffer, this.offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(this.length);
+            for (int i = 0; i < this.length; i++) {
+                sb.append(this.charAt(i));
+            }
+            return sb.toString();
+        }
+    }
+}
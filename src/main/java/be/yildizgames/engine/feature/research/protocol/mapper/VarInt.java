@@ -0,0 +1,90 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol.mapper;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Variable length encoding of int values, 7 bits per byte, the high bit is set when more bytes follow.
+ *
+ * @author Grégory Van den Borre
+ */
+final class VarInt {
+
+    private static final int MAX_BYTES = 5;
+
+    private VarInt() {
+        super();
+    }
+
+    static void put(final ByteBuffer buffer, final int value) {
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            buffer.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put((byte) v);
+    }
+
+    static void putSigned(final ByteBuffer buffer, final int value) {
+        put(buffer, (value << 1) ^ (value >> 31));
+    }
+
+    static int get(final ByteBuffer buffer) {
+        int result = 0;
+        for (int i = 0; i < MAX_BYTES; i++) {
+            byte b = buffer.get();
+            result |= (b & 0x7F) << (7 * i);
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new ResearchMappingException("Invalid variable length int.");
+    }
+
+    static int getSigned(final ByteBuffer buffer) {
+        int v = get(buffer);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    static int size(final int value) {
+        int v = value;
+        int size = 1;
+        while ((v & ~0x7F) != 0) {
+            size++;
+            v >>>= 7;
+        }
+        return size;
+    }
+
+    static int sizeSigned(final int value) {
+        return size((value << 1) ^ (value >> 31));
+    }
+
+    static ResearchMappingException underflow(final BufferUnderflowException e) {
+        return new ResearchMappingException("Truncated research data.", e);
+    }
+}
@@ -28,6 +28,7 @@ module be.yildizgames.feature.research.shared {
     requires be.yildizgames.common.mapping.model;
 
     exports be.yildizgames.engine.feature.research;
+    exports be.yildizgames.engine.feature.research.persistence;
     exports be.yildizgames.engine.feature.research.protocol;
     exports be.yildizgames.engine.feature.research.protocol.mapper;
 }
@@ -0,0 +1,151 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.PlayerId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class AsyncResearchListenerTest {
+
+    @Nested
+    public class Dispatch {
+
+        @Test
+        public void orderedPerPlayer() throws InterruptedException {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+            AsyncResearchListener listener = AsyncResearchListener.wrap((r, p) -> received.add(r.value), executor, 1024, AsyncResearchListener.OverflowPolicy.BLOCK);
+            for (int i = 0; i < 500; i++) {
+                listener.researchCompleted(ResearchId.valueOf(i), PlayerId.valueOf(1));
+            }
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(500, received.size());
+            for (int i = 0; i < 500; i++) {
+                Assertions.assertEquals(i, received.get(i));
+            }
+            Assertions.assertEquals(0, listener.getQueueDepth());
+        }
+
+        @Test
+        public void drop() throws InterruptedException {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            CountDownLatch blocked = new CountDownLatch(1);
+            executor.execute(() -> {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            AsyncResearchListener listener = AsyncResearchListener.wrap((r, p) -> {}, executor, 16, AsyncResearchListener.OverflowPolicy.DROP);
+            for (int i = 0; i < 3; i++) {
+                listener.researchCompleted(ResearchId.valueOf(i), PlayerId.valueOf(1));
+            }
+            Assertions.assertEquals(1, listener.getQueueDepth());
+            Assertions.assertEquals(2, listener.getDroppedEvents());
+            blocked.countDown();
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        @Test
+        public void exactCapacity() throws InterruptedException {
+            for (int capacity : new int[]{4, 20}) {
+                ExecutorService executor = Executors.newSingleThreadExecutor();
+                CountDownLatch blocked = new CountDownLatch(1);
+                executor.execute(() -> {
+                    try {
+                        blocked.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                AsyncResearchListener listener = AsyncResearchListener.wrap((r, p) -> {}, executor, capacity, AsyncResearchListener.OverflowPolicy.DROP);
+                for (int i = 0; i < 192; i++) {
+                    listener.researchCompleted(ResearchId.valueOf(i), PlayerId.valueOf(i % 64));
+                }
+                Assertions.assertEquals(capacity, listener.getQueueDepth());
+                Assertions.assertEquals(192 - capacity, listener.getDroppedEvents());
+                blocked.countDown();
+                executor.shutdown();
+                Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            }
+        }
+
+        @Test
+        public void delegateError() throws InterruptedException {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            CountDownLatch delivered = new CountDownLatch(1);
+            AsyncResearchListener listener = AsyncResearchListener.wrap((r, p) -> {
+                if (r.value == 0) {
+                    throw new Error("Delegate failure.");
+                }
+                delivered.countDown();
+            }, executor, 16, AsyncResearchListener.OverflowPolicy.BLOCK);
+            listener.researchCompleted(ResearchId.valueOf(0), PlayerId.valueOf(1));
+            listener.researchCompleted(ResearchId.valueOf(1), PlayerId.valueOf(1));
+            Assertions.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        @Test
+        public void callerRuns() throws InterruptedException {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            CountDownLatch blocked = new CountDownLatch(1);
+            executor.execute(() -> {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+            AsyncResearchListener listener = AsyncResearchListener.wrap((r, p) -> received.add(r.value), executor, 16, AsyncResearchListener.OverflowPolicy.CALLER_RUNS);
+            for (int i = 0; i < 3; i++) {
+                listener.researchCompleted(ResearchId.valueOf(i), PlayerId.valueOf(1));
+            }
+            Assertions.assertEquals(List.of(0, 1), received);
+            blocked.countDown();
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(List.of(0, 1, 2), received);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.BonusId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class ResearchCatalogTest {
+
+    @Nested
+    public class Get {
+
+        @Test
+        public void dense() {
+            Research research = Research.createAndRegister(ResearchId.valueOf(300), 10, BonusId.valueOf(1));
+            ResearchCatalog catalog = ResearchCatalog.builder().add(research).build();
+            Assertions.assertSame(research, catalog.get(ResearchId.valueOf(300)));
+            Assertions.assertEquals(1, catalog.size());
+        }
+
+        @Test
+        public void sparse() {
+            Research research = Research.createAndRegister(ResearchId.valueOf(-300), 10, BonusId.valueOf(1));
+            ResearchCatalog catalog = ResearchCatalog.builder().add(research).build();
+            Assertions.assertSame(research, catalog.get(ResearchId.valueOf(-300)));
+        }
+
+        @Test
+        public void notFound() {
+            ResearchCatalog catalog = ResearchCatalog.builder().build();
+            Assertions.assertNull(catalog.get(ResearchId.valueOf(301)));
+        }
+
+        @Test
+        public void registered() {
+            Research research = Research.createAndRegister(ResearchId.valueOf(302), 10, BonusId.valueOf(1));
+            Assertions.assertSame(research, Research.getCatalog().get(ResearchId.valueOf(302)));
+            Assertions.assertSame(research, Research.get(ResearchId.valueOf(302)));
+        }
+    }
+
+    @Nested
+    public class Build {
+
+        @Test
+        public void frozen() {
+            ResearchCatalog.Builder builder = ResearchCatalog.builder();
+            ResearchCatalog catalog = builder.build();
+            builder.add(Research.createAndRegister(ResearchId.valueOf(303), 10, BonusId.valueOf(1)));
+            Assertions.assertNull(catalog.get(ResearchId.valueOf(303)));
+            Assertions.assertEquals(0, catalog.size());
+        }
+    }
+
+    @Nested
+    public class Prerequisites {
+
+        @Test
+        public void topologicalOrder() {
+            Research c = Research.createAndRegister(ResearchId.valueOf(312), 10, BonusId.valueOf(1), List.of(ResearchId.valueOf(310), ResearchId.valueOf(311)));
+            Research b = Research.createAndRegister(ResearchId.valueOf(311), 10, BonusId.valueOf(1), ResearchId.valueOf(310));
+            Research a = Research.createAndRegister(ResearchId.valueOf(310), 10, BonusId.valueOf(1));
+            ResearchCatalog catalog = ResearchCatalog.builder().add(c).add(b).add(a).build();
+            Assertions.assertEquals(List.of(a, b, c), catalog.getTopologicalOrder());
+        }
+
+        @Test
+        public void cycle() {
+            Research.createAndRegister(ResearchId.valueOf(320), 10, BonusId.valueOf(1), ResearchId.valueOf(321));
+            Research.createAndRegister(ResearchId.valueOf(321), 10, BonusId.valueOf(1), ResearchId.valueOf(322));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> Research.createAndRegister(ResearchId.valueOf(322), 10, BonusId.valueOf(1), ResearchId.valueOf(320)));
+            Assertions.assertNull(Research.get(ResearchId.valueOf(322)));
+        }
+
+        @Test
+        public void selfPrerequisite() {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> Research.createAndRegister(ResearchId.valueOf(323), 10, BonusId.valueOf(1), ResearchId.valueOf(323)));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.BonusId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class ResearchIdTest {
+
+    @Nested
+    public class ValueOf {
+
+        @Test
+        public void cached() {
+            Assertions.assertSame(ResearchId.valueOf(12), ResearchId.valueOf(12));
+        }
+
+        @Test
+        public void negativeNotCached() {
+            Assertions.assertNotSame(ResearchId.valueOf(-12), ResearchId.valueOf(-12));
+            Assertions.assertEquals(ResearchId.valueOf(-12), ResearchId.valueOf(-12));
+        }
+
+        @Test
+        public void registeredCached() {
+            Research research = Research.createAndRegister(ResearchId.valueOf(5000), 10, BonusId.valueOf(1));
+            Assertions.assertSame(research.getId(), ResearchId.valueOf(5000));
+        }
+
+        @Test
+        public void canonicalWhileGrowing() throws InterruptedException {
+            int from = 100;
+            int to = 1000;
+            ResearchId[] seen = new ResearchId[to - from];
+            Thread reader = new Thread(() -> {
+                for (int i = from; i < to; i++) {
+                    seen[i - from] = ResearchId.valueOf(i);
+                }
+            });
+            reader.start();
+            Research.createAndRegister(ResearchId.valueOf(40_000), 10, BonusId.valueOf(1));
+            reader.join();
+            for (int i = from; i < to; i++) {
+                Assertions.assertSame(seen[i - from], ResearchId.valueOf(i));
+            }
+        }
+    }
+}
@@ -29,7 +29,27 @@ import be.yildizgames.common.model.PlayerId;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
 
 /**
  * @author Grégory Van den Borre
@@ -72,6 +92,487 @@ public class ResearchManagerTest {
             assertEquals(ResearchManager.ResearchState.UNAVAILABLE, ResearchManager.getInstance().getResearchState(PlayerId.valueOf(6), ResearchId.valueOf(7)));
         }
 
+        @Test
+        public void severalPrerequisitesDone() {
+            Research.createAndRegister(ResearchId.valueOf(9),10, BonusId.valueOf(1));
+            Research.createAndRegister(ResearchId.valueOf(70),10, BonusId.valueOf(1));
+            Research.createAndRegister(ResearchId.valueOf(11),10, BonusId.valueOf(1), List.of(ResearchId.valueOf(9), ResearchId.valueOf(70)));
+            ResearchManager.getInstance().addResearch(ResearchId.valueOf(9), PlayerId.valueOf(9));
+            ResearchManager.getInstance().addResearch(ResearchId.valueOf(70), PlayerId.valueOf(9));
+            assertEquals(ResearchManager.ResearchState.AVAILABLE, ResearchManager.getInstance().getResearchState(PlayerId.valueOf(9), ResearchId.valueOf(11)));
+        }
+
+        @Test
+        public void severalPrerequisitesPartiallyDone() {
+            Research.createAndRegister(ResearchId.valueOf(12),10, BonusId.valueOf(1));
+            Research.createAndRegister(ResearchId.valueOf(-13),10, BonusId.valueOf(1));
+            Research.createAndRegister(ResearchId.valueOf(14),10, BonusId.valueOf(1), List.of(ResearchId.valueOf(12), ResearchId.valueOf(-13)));
+            ResearchManager.getInstance().addResearch(ResearchId.valueOf(12), PlayerId.valueOf(10));
+            assertEquals(ResearchManager.ResearchState.UNAVAILABLE, ResearchManager.getInstance().getResearchState(PlayerId.valueOf(10), ResearchId.valueOf(14)));
+            ResearchManager.getInstance().addResearch(ResearchId.valueOf(-13), PlayerId.valueOf(10));
+            assertEquals(ResearchManager.ResearchState.AVAILABLE, ResearchManager.getInstance().getResearchState(PlayerId.valueOf(10), ResearchId.valueOf(14)));
+        }
+
+        @Test
+        public void unknownPlayerNotRegistered() {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            Research.createAndRegister(ResearchId.valueOf(8),10, BonusId.valueOf(1));
+            assertEquals(ResearchManager.ResearchState.AVAILABLE, manager.getResearchState(PlayerId.valueOf(8), ResearchId.valueOf(8)));
+            assertSame(Collections.emptySet(), manager.getResearchList(PlayerId.valueOf(8)));
+        }
+
+    }
+
+    @Nested
+    public class GetAvailableResearches {
+
+        @Test
+        public void unknownPlayer() {
+            Research.createAndRegister(ResearchId.valueOf(20),10, BonusId.valueOf(1));
+            Research.createAndRegister(ResearchId.valueOf(21),10, BonusId.valueOf(1), ResearchId.valueOf(20));
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            assertTrue(manager.getAvailableResearches(PlayerId.valueOf(20)).contains(ResearchId.valueOf(20)));
+            assertFalse(manager.getAvailableResearches(PlayerId.valueOf(20)).contains(ResearchId.valueOf(21)));
+        }
+
+        @Test
+        public void updatedOnCompletion() {
+            Research.createAndRegister(ResearchId.valueOf(22),10, BonusId.valueOf(1));
+            Research.createAndRegister(ResearchId.valueOf(23),10, BonusId.valueOf(1));
+            Research.createAndRegister(ResearchId.valueOf(24),10, BonusId.valueOf(1), List.of(ResearchId.valueOf(22), ResearchId.valueOf(23)));
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            PlayerId player = PlayerId.valueOf(21);
+            manager.addResearch(ResearchId.valueOf(22), player);
+            Set<ResearchId> available = manager.getAvailableResearches(player);
+            assertFalse(available.contains(ResearchId.valueOf(22)));
+            assertTrue(available.contains(ResearchId.valueOf(23)));
+            assertFalse(available.contains(ResearchId.valueOf(24)));
+            manager.addResearch(ResearchId.valueOf(23), player);
+            available = manager.getAvailableResearches(player);
+            assertFalse(available.contains(ResearchId.valueOf(23)));
+            assertTrue(available.contains(ResearchId.valueOf(24)));
+        }
+
+        @Test
+        public void previousResultUnchanged() {
+            ResearchCatalog catalog = ResearchCatalog.builder()
+                    .add(Research.create(ResearchId.valueOf(25), 10, BonusId.valueOf(1), List.of()))
+                    .add(Research.create(ResearchId.valueOf(26), 10, BonusId.valueOf(1), List.of(ResearchId.valueOf(25))))
+                    .add(Research.create(ResearchId.valueOf(27), 10, BonusId.valueOf(1), List.of(ResearchId.valueOf(26))))
+                    .build();
+            ResearchManager manager = ResearchManager.builder().catalog(catalog).build();
+            PlayerId player = PlayerId.valueOf(22);
+            Set<ResearchId> before = manager.getAvailableResearches(player);
+            manager.addResearch(ResearchId.valueOf(25), player);
+            manager.addResearch(ResearchId.valueOf(26), player);
+            assertEquals(Set.of(ResearchId.valueOf(25)), before);
+            Set<ResearchId> after = manager.getAvailableResearches(player);
+            assertEquals(Set.of(ResearchId.valueOf(27)), after);
+            assertSame(after, manager.getAvailableResearches(player));
+        }
+    }
+
+    @Nested
+    public class AddResearch {
+
+        @Test
+        public void concurrentCompletedOnce() throws InterruptedException {
+            AtomicInteger completed = new AtomicInteger();
+            AtomicInteger alreadyDone = new AtomicInteger();
+            PlayerId player = PlayerId.valueOf(100);
+            ResearchId research = ResearchId.valueOf(100);
+            ResearchManager.getInstance().addListener(new ResearchListener() {
+                @Override
+                public void researchCompleted(ResearchId r, PlayerId p) {
+                    if (p.equals(player)) {
+                        completed.incrementAndGet();
+                    }
+                }
+
+                @Override
+                public void researchAlreadyDone(ResearchId r, PlayerId p) {
+                    if (p.equals(player)) {
+                        alreadyDone.incrementAndGet();
+                    }
+                }
+            });
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Thread t = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    ResearchManager.getInstance().addResearch(research, player);
+                });
+                t.start();
+                threads.add(t);
+            }
+            start.countDown();
+            for (Thread t : threads) {
+                t.join();
+            }
+            assertEquals(1, completed.get());
+            assertEquals(7, alreadyDone.get());
+        }
+    }
+
+    @Nested
+    public class AddResearches {
+
+        @Test
+        public void batchNotified() {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            PlayerId player = PlayerId.valueOf(30);
+            List<Collection<ResearchId>> completed = new ArrayList<>();
+            List<Collection<ResearchId>> alreadyDone = new ArrayList<>();
+            manager.addResearch(ResearchId.valueOf(31), player);
+            manager.addListener(new ResearchListener() {
+                @Override
+                public void researchCompleted(ResearchId research, PlayerId p) {
+                    fail("Batch expected.");
+                }
+
+                @Override
+                public void researchesCompleted(Collection<ResearchId> researches, PlayerId p) {
+                    completed.add(researches);
+                }
+
+                @Override
+                public void researchesAlreadyDone(Collection<ResearchId> researches, PlayerId p) {
+                    alreadyDone.add(researches);
+                }
+            });
+            manager.addResearches(player, List.of(ResearchId.valueOf(30), ResearchId.valueOf(31), ResearchId.valueOf(32)));
+            assertEquals(List.of(List.of(ResearchId.valueOf(30), ResearchId.valueOf(32))), completed);
+            assertEquals(List.of(List.of(ResearchId.valueOf(31))), alreadyDone);
+            assertTrue(manager.hasResearch(player, ResearchId.valueOf(32)));
+        }
+
+        @Test
+        public void defaultFallbackToSingle() {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            PlayerId player = PlayerId.valueOf(31);
+            List<ResearchId> completed = new ArrayList<>();
+            manager.addListener((research, p) -> completed.add(research));
+            manager.addResearches(player, List.of(ResearchId.valueOf(33), ResearchId.valueOf(34)));
+            assertEquals(List.of(ResearchId.valueOf(33), ResearchId.valueOf(34)), completed);
+        }
+    }
+
+    @Nested
+    public class Metrics {
+
+        @Test
+        public void recorded() {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            ResearchListener listener = (r, p) -> {};
+            manager.addListener(listener);
+            ResearchStatistics statistics = ResearchStatistics.create();
+            manager.setMetrics(statistics);
+            PlayerId player = PlayerId.valueOf(40);
+            manager.addResearch(ResearchId.valueOf(40), player);
+            manager.hasResearch(player, ResearchId.valueOf(40));
+            manager.getResearchState(player, ResearchId.valueOf(41));
+            assertEquals(1, statistics.getOperation(ResearchMetrics.Operation.ADD_RESEARCH).getCount());
+            assertEquals(1, statistics.getOperation(ResearchMetrics.Operation.HAS_RESEARCH).getCount());
+            assertEquals(1, statistics.getOperation(ResearchMetrics.Operation.GET_RESEARCH_STATE).getCount());
+            assertEquals(1, statistics.getNotRegisteredCount());
+            assertEquals(1, statistics.getListeners().get(listener).getCount());
+            assertEquals(1, statistics.getPlayerCount());
+            assertTrue(statistics.getFootprint() > 0);
+        }
+
+        @Test
+        public void disabled() {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            ResearchStatistics statistics = ResearchStatistics.create();
+            manager.setMetrics(statistics);
+            manager.setMetrics(ResearchMetrics.NONE);
+            manager.addResearch(ResearchId.valueOf(42), PlayerId.valueOf(42));
+            assertEquals(0, statistics.getOperation(ResearchMetrics.Operation.ADD_RESEARCH).getCount());
+        }
+    }
+
+    @Nested
+    public class Evict {
+
+        private final Map<PlayerId, List<ResearchId>> store = new HashMap<>();
+
+        private final ResearchLoader loader = p -> this.store.getOrDefault(p, List.of());
+
+        @Test
+        public void loadOnAccess() {
+            this.store.put(PlayerId.valueOf(50), List.of(ResearchId.valueOf(50)));
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet, this.loader, EvictionPolicy.maxPlayers(10));
+            assertTrue(manager.hasResearch(PlayerId.valueOf(50), ResearchId.valueOf(50)));
+            assertTrue(manager.hasResearch(PlayerId.valueOf(50), ResearchId.valueOf(50)));
+            assertEquals(1, manager.getCacheStatistics().getMisses());
+            assertEquals(1, manager.getCacheStatistics().getHits());
+        }
+
+        @Test
+        public void sizeBound() {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet, this.loader, EvictionPolicy.maxPlayers(2));
+            manager.getResearchList(PlayerId.valueOf(51));
+            manager.getResearchList(PlayerId.valueOf(52));
+            manager.getResearchList(PlayerId.valueOf(51));
+            manager.getResearchList(PlayerId.valueOf(53));
+            assertEquals(Set.of(PlayerId.valueOf(51), PlayerId.valueOf(53)), manager.getPlayers());
+            assertEquals(1, manager.getCacheStatistics().getEvictions());
+        }
+
+        @Test
+        public void idle() throws InterruptedException {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet, this.loader, EvictionPolicy.idle(Duration.ofMillis(1)));
+            manager.addResearch(ResearchId.valueOf(54), PlayerId.valueOf(54));
+            Thread.sleep(5);
+            assertEquals(1, manager.evict());
+            assertTrue(manager.getPlayers().isEmpty());
+        }
+
+        @Test
+        public void onExecutor() {
+            List<Runnable> sweeps = new ArrayList<>();
+            ResearchManager manager = ResearchManager.builder()
+                    .eviction(this.loader, EvictionPolicy.maxPlayers(2))
+                    .evictionExecutor(sweeps::add)
+                    .build();
+            manager.getResearchList(PlayerId.valueOf(56));
+            manager.getResearchList(PlayerId.valueOf(57));
+            manager.getResearchList(PlayerId.valueOf(58));
+            assertEquals(3, manager.getPlayers().size());
+            assertEquals(1, sweeps.size());
+            sweeps.get(0).run();
+            assertEquals(2, manager.getPlayers().size());
+        }
+
+        @Test
+        public void notUnloadedWhileNotifying() {
+            Map<PlayerId, Set<ResearchId>> persisted = new ConcurrentHashMap<>();
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet,
+                    p -> List.copyOf(persisted.getOrDefault(p, Set.of())), EvictionPolicy.idle(Duration.ofNanos(1)));
+            PlayerId player = PlayerId.valueOf(59);
+            List<Boolean> seen = new ArrayList<>();
+            manager.addListener((r, p) -> {
+                seen.add(manager.evict() == 0);
+                seen.add(manager.hasResearch(p, r));
+            });
+            manager.addListener((r, p) -> persisted.computeIfAbsent(p, k -> ConcurrentHashMap.newKeySet()).add(r));
+            manager.addResearch(ResearchId.valueOf(59), player);
+            assertEquals(List.of(true, true), seen);
+            assertTrue(manager.hasResearch(player, ResearchId.valueOf(59)));
+        }
+
+        @Test
+        public void concurrentWrites() throws InterruptedException {
+            Map<PlayerId, Set<ResearchId>> persisted = new ConcurrentHashMap<>();
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet,
+                    p -> List.copyOf(persisted.getOrDefault(p, Set.of())), EvictionPolicy.maxPlayers(3));
+            manager.addListener((r, p) -> persisted.computeIfAbsent(p, k -> ConcurrentHashMap.newKeySet()).add(r));
+            int threads = 4;
+            CountDownLatch done = new CountDownLatch(threads);
+            List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 2000; i++) {
+                            manager.addResearch(ResearchId.valueOf(i % 100), PlayerId.valueOf(60 + (i + offset) % 10));
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            done.await();
+            assertTrue(errors.isEmpty(), errors::toString);
+            for (int p = 60; p < 70; p++) {
+                assertEquals(persisted.get(PlayerId.valueOf(p)), manager.getResearchList(PlayerId.valueOf(p)));
+            }
+        }
+
+        @Test
+        public void noLoader() {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            manager.getResearchList(PlayerId.valueOf(55));
+            assertEquals(0, manager.evict());
+            assertTrue(manager.getPlayers().isEmpty());
+        }
     }
 
-}
\ No newline at end of file
+    @Nested
+    public class Scoped {
+
+        @Test
+        public void ownCatalog() {
+            ResearchId root = ResearchId.valueOf(60);
+            ResearchId child = ResearchId.valueOf(61);
+            ResearchCatalog flat = ResearchCatalog.builder()
+                    .add(Research.create(root, 10, BonusId.valueOf(1), List.of()))
+                    .add(Research.create(child, 10, BonusId.valueOf(1), List.of()))
+                    .build();
+            ResearchCatalog tree = ResearchCatalog.builder()
+                    .add(Research.create(root, 10, BonusId.valueOf(1), List.of()))
+                    .add(Research.create(child, 10, BonusId.valueOf(1), List.of(root)))
+                    .build();
+            ResearchManager world1 = ResearchManager.builder().catalog(flat).build();
+            ResearchManager world2 = ResearchManager.builder().catalog(tree).build();
+            PlayerId player = PlayerId.valueOf(60);
+            assertEquals(ResearchManager.ResearchState.AVAILABLE, world1.getResearchState(player, child));
+            assertEquals(ResearchManager.ResearchState.UNAVAILABLE, world2.getResearchState(player, child));
+            world2.addResearch(root, player);
+            assertEquals(ResearchManager.ResearchState.AVAILABLE, world2.getResearchState(player, child));
+            assertFalse(world1.hasResearch(player, root));
+        }
+
+        @Test
+        public void notRegisteredGlobally() {
+            Research.create(ResearchId.valueOf(62), 10, BonusId.valueOf(1), List.of());
+            assertNull(Research.get(ResearchId.valueOf(62)));
+        }
+    }
+
+    @Nested
+    public class GetResearchStates {
+
+        private ResearchCatalog catalog() {
+            ResearchCatalog.Builder builder = ResearchCatalog.builder();
+            for (int i = 0; i < 200; i++) {
+                List<ResearchId> prerequisites = i == 0 ? List.of() : List.of(ResearchId.valueOf(i / 2), ResearchId.valueOf(i - 1));
+                builder.add(Research.create(ResearchId.valueOf(i), 10, BonusId.valueOf(1), prerequisites));
+            }
+            builder.add(Research.create(ResearchId.valueOf(100_000), 10, BonusId.valueOf(1), List.of(ResearchId.valueOf(3))));
+            builder.add(Research.create(ResearchId.valueOf(201), 10, BonusId.valueOf(1), List.of(ResearchId.valueOf(100_000))));
+            return builder.build();
+        }
+
+        @Test
+        public void sameAsSingleState() {
+            for (Supplier<ResearchSet> storage : List.<Supplier<ResearchSet>>of(ResearchSet::bitSet, ResearchSet::hashSet)) {
+                ResearchManager manager = ResearchManager.builder().storage(storage).catalog(this.catalog()).build();
+                PlayerId player = PlayerId.valueOf(1);
+                PlayerId unknown = PlayerId.valueOf(2);
+                manager.addResearches(player, List.of(ResearchId.valueOf(0), ResearchId.valueOf(1), ResearchId.valueOf(2),
+                        ResearchId.valueOf(3), ResearchId.valueOf(100_000), ResearchId.valueOf(70)));
+                byte[] states = new byte[manager.getCatalog().size()];
+                for (PlayerId p : List.of(player, unknown)) {
+                    assertEquals(manager.getCatalog().size(), manager.getResearchStates(p, states));
+                    List<Research> researches = manager.getCatalog().getResearches();
+                    for (int i = 0; i < researches.size(); i++) {
+                        assertEquals(manager.getResearchState(p, researches.get(i).getId()), ResearchManager.ResearchState.of(states[i]));
+                    }
+                }
+            }
+        }
+
+        @Test
+        public void arrayTooShort() {
+            ResearchManager manager = ResearchManager.builder().catalog(this.catalog()).build();
+            assertThrows(IllegalArgumentException.class, () -> manager.getResearchStates(PlayerId.valueOf(1), new byte[1]));
+        }
+    }
+
+    @Nested
+    public class GetBonuses {
+
+        @Test
+        public void updatedOnCompletion() {
+            ResearchCatalog catalog = ResearchCatalog.builder()
+                    .add(Research.create(ResearchId.valueOf(80), 10, BonusId.valueOf(1), List.of()))
+                    .add(Research.create(ResearchId.valueOf(81), 10, BonusId.valueOf(1), List.of()))
+                    .add(Research.create(ResearchId.valueOf(82), 10, BonusId.valueOf(2), List.of()))
+                    .build();
+            ResearchManager manager = ResearchManager.builder().catalog(catalog).build();
+            PlayerId player = PlayerId.valueOf(80);
+            assertSame(ResearchBonuses.EMPTY, manager.getBonuses(player));
+            manager.restoreResearches(player, List.of(ResearchId.valueOf(80)));
+            ResearchBonuses before = manager.getBonuses(player);
+            assertEquals(1, before.getCount(BonusId.valueOf(1)));
+            assertFalse(before.contains(BonusId.valueOf(2)));
+            manager.addResearches(player, List.of(ResearchId.valueOf(81), ResearchId.valueOf(82)));
+            ResearchBonuses after = manager.getBonuses(player);
+            assertEquals(2, after.getCount(BonusId.valueOf(1)));
+            assertTrue(after.contains(BonusId.valueOf(2)));
+            assertEquals(1, before.getCount(BonusId.valueOf(1)));
+        }
+    }
+
+    @Nested
+    public class LoadAll {
+
+        @Test
+        public void loadedWithoutNotification() {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            List<ResearchId> notified = new ArrayList<>();
+            manager.addListener((r, p) -> notified.add(r));
+            manager.addResearch(ResearchId.valueOf(90), PlayerId.valueOf(1));
+            Map<PlayerId, int[]> data = new HashMap<>();
+            for (int i = 2; i < 10_002; i++) {
+                data.put(PlayerId.valueOf(i), new int[]{90, i % 64, -i, 90});
+            }
+            assertEquals(10_000, manager.loadAll(data, ForkJoinPool.commonPool()));
+            assertEquals(1, notified.size());
+            assertEquals(10_001, manager.getPlayers().size());
+            assertTrue(manager.hasResearch(PlayerId.valueOf(1), ResearchId.valueOf(90)));
+            assertEquals(Set.of(ResearchId.valueOf(90), ResearchId.valueOf(5), ResearchId.valueOf(-5)), manager.getResearchList(PlayerId.valueOf(5)));
+        }
+    }
+
+    @Nested
+    public class SetCatalog {
+
+        private final ResearchId root = ResearchId.valueOf(95);
+
+        private final ResearchId child = ResearchId.valueOf(96);
+
+        private ResearchCatalog catalog(List<ResearchId> childPrerequisites, int childBonus) {
+            return ResearchCatalog.builder()
+                    .add(Research.create(this.root, 10, BonusId.valueOf(1), List.of()))
+                    .add(Research.create(this.child, 10, BonusId.valueOf(childBonus), childPrerequisites))
+                    .build();
+        }
+
+        @Test
+        public void derivedDataRebuilt() throws Exception {
+            ResearchManager manager = ResearchManager.builder().catalog(this.catalog(List.of(this.root), 2)).build();
+            PlayerId player = PlayerId.valueOf(95);
+            manager.restoreResearches(player, List.of(this.child));
+            assertEquals(Set.of(this.root), manager.getAvailableResearches(player));
+            assertTrue(manager.getBonuses(player).contains(BonusId.valueOf(2)));
+            ResearchCatalog patched = this.catalog(List.of(), 3);
+            manager.setCatalog(patched);
+            assertSame(patched, manager.getCatalog());
+            manager.rebuildDerivedData(Runnable::run).get();
+            assertEquals(Set.of(this.root), manager.getAvailableResearches(player));
+            assertFalse(manager.getBonuses(player).contains(BonusId.valueOf(2)));
+            assertTrue(manager.getBonuses(player).contains(BonusId.valueOf(3)));
+        }
+
+        @Test
+        public void stateFollowsCatalog() {
+            ResearchManager manager = ResearchManager.builder().catalog(this.catalog(List.of(this.root), 2)).build();
+            PlayerId player = PlayerId.valueOf(96);
+            assertEquals(ResearchManager.ResearchState.UNAVAILABLE, manager.getResearchState(player, this.child));
+            manager.setCatalog(this.catalog(List.of(), 2));
+            assertEquals(ResearchManager.ResearchState.AVAILABLE, manager.getResearchState(player, this.child));
+        }
+
+        @Test
+        public void publishGlobal() {
+            ResearchId patched = ResearchId.valueOf(97);
+            ResearchCatalog catalog = ResearchCatalog.builder()
+                    .addAll(Research.getCatalog().getResearches())
+                    .add(Research.create(patched, 10, BonusId.valueOf(1), List.of()))
+                    .build();
+            assertTrue(catalog.getVersion() > Research.getCatalog().getVersion());
+            Research.publishCatalog(catalog);
+            assertSame(catalog, Research.getCatalog());
+            assertEquals(ResearchManager.ResearchState.AVAILABLE, ResearchManager.getInstance().getResearchState(PlayerId.valueOf(97), patched));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.BonusId;
+import be.yildizgames.common.model.PlayerId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class ResearchSchedulerTest {
+
+    private static final ResearchId ROOT = ResearchId.valueOf(70);
+
+    private static final ResearchId CHILD = ResearchId.valueOf(71);
+
+    private static final ResearchId OTHER = ResearchId.valueOf(72);
+
+    private static final PlayerId PLAYER = PlayerId.valueOf(70);
+
+    private static ResearchManager manager() {
+        ResearchCatalog catalog = ResearchCatalog.builder()
+                .add(Research.create(ROOT, 10, BonusId.valueOf(1), List.of()))
+                .add(Research.create(CHILD, 20, BonusId.valueOf(1), List.of(ROOT)))
+                .add(Research.create(OTHER, 5, BonusId.valueOf(1), List.of()))
+                .build();
+        return ResearchManager.builder().catalog(catalog).build();
+    }
+
+    private static ResearchScheduler scheduler(ResearchManager manager) {
+        return ResearchScheduler.create(manager, r -> Duration.ofMillis((long) r.getPrice()));
+    }
+
+    @Nested
+    public class Advance {
+
+        @Test
+        public void completedWhenDue() {
+            ResearchManager manager = manager();
+            ResearchScheduler scheduler = scheduler(manager);
+            Assertions.assertTrue(scheduler.enqueue(PLAYER, ROOT, 0));
+            Assertions.assertEquals(OptionalLong.of(10), scheduler.getDueTime(PLAYER));
+            Assertions.assertEquals(0, scheduler.advance(9));
+            Assertions.assertFalse(manager.hasResearch(PLAYER, ROOT));
+            Assertions.assertEquals(1, scheduler.advance(10));
+            Assertions.assertTrue(manager.hasResearch(PLAYER, ROOT));
+            Assertions.assertEquals(0, scheduler.getInProgressCount());
+        }
+
+        @Test
+        public void queueChained() {
+            ResearchManager manager = manager();
+            ResearchScheduler scheduler = scheduler(manager);
+            scheduler.enqueue(PLAYER, ROOT, 0);
+            scheduler.enqueue(PLAYER, CHILD, 0);
+            Assertions.assertEquals(List.of(ROOT, CHILD), scheduler.getQueue(PLAYER));
+            Assertions.assertEquals(2, scheduler.advance(100));
+            Assertions.assertTrue(manager.hasResearch(PLAYER, CHILD));
+            Assertions.assertTrue(scheduler.getQueue(PLAYER).isEmpty());
+        }
+
+        @Test
+        public void nextStartsAtCompletion() {
+            ResearchScheduler scheduler = scheduler(manager());
+            scheduler.enqueue(PLAYER, ROOT, 0);
+            scheduler.enqueue(PLAYER, CHILD, 0);
+            scheduler.advance(15);
+            Assertions.assertEquals(OptionalLong.of(30), scheduler.getDueTime(PLAYER));
+        }
+    }
+
+    @Nested
+    public class Enqueue {
+
+        @Test
+        public void whileCompleting() {
+            ResearchManager manager = manager();
+            ResearchScheduler scheduler = scheduler(manager);
+            List<Boolean> queued = new ArrayList<>();
+            manager.addListener((research, player) -> {
+                if (research.equals(OTHER)) {
+                    queued.add(scheduler.enqueue(PLAYER, ROOT, 15));
+                    queued.add(scheduler.enqueue(PLAYER, CHILD, 15));
+                }
+            });
+            scheduler.enqueue(PLAYER, OTHER, 0);
+            scheduler.enqueue(PLAYER, ROOT, 0);
+            Assertions.assertEquals(2, scheduler.advance(15));
+            Assertions.assertEquals(List.of(false, true), queued);
+            Assertions.assertEquals(List.of(CHILD), scheduler.getQueue(PLAYER));
+        }
+
+        @Test
+        public void missingPrerequisite() {
+            ResearchScheduler scheduler = scheduler(manager());
+            Assertions.assertThrows(IllegalArgumentException.class, () -> scheduler.enqueue(PLAYER, CHILD, 0));
+        }
+
+        @Test
+        public void alreadyQueued() {
+            ResearchScheduler scheduler = scheduler(manager());
+            scheduler.enqueue(PLAYER, ROOT, 0);
+            Assertions.assertFalse(scheduler.enqueue(PLAYER, ROOT, 0));
+        }
+    }
+
+    @Nested
+    public class Cancel {
+
+        @Test
+        public void dependentsRemoved() {
+            ResearchManager manager = manager();
+            ResearchScheduler scheduler = scheduler(manager);
+            scheduler.enqueue(PLAYER, ROOT, 0);
+            scheduler.enqueue(PLAYER, CHILD, 0);
+            scheduler.enqueue(PLAYER, OTHER, 0);
+            Assertions.assertTrue(scheduler.cancel(PLAYER, ROOT, 4));
+            Assertions.assertEquals(List.of(OTHER), scheduler.getQueue(PLAYER));
+            Assertions.assertEquals(OptionalLong.of(9), scheduler.getDueTime(PLAYER));
+            Assertions.assertEquals(1, scheduler.advance(100));
+            Assertions.assertFalse(manager.hasResearch(PLAYER, ROOT));
+            Assertions.assertTrue(manager.hasResearch(PLAYER, OTHER));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.BonusId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class ResearchSetTest {
+
+    @Nested
+    public class BitSet {
+
+        @Test
+        public void addDense() {
+            ResearchSet set = ResearchSet.bitSet();
+            Assertions.assertTrue(set.add(ResearchId.valueOf(70)));
+            Assertions.assertTrue(set.contains(ResearchId.valueOf(70)));
+            Assertions.assertFalse(set.contains(ResearchId.valueOf(6)));
+            Assertions.assertEquals(1, set.size());
+        }
+
+        @Test
+        public void addTwice() {
+            ResearchSet set = ResearchSet.bitSet();
+            Assertions.assertTrue(set.add(ResearchId.valueOf(3)));
+            Assertions.assertFalse(set.add(ResearchId.valueOf(3)));
+            Assertions.assertEquals(1, set.size());
+        }
+
+        @Test
+        public void addSparse() {
+            ResearchSet set = ResearchSet.bitSet();
+            Assertions.assertTrue(set.add(ResearchId.valueOf(-5)));
+            Assertions.assertTrue(set.add(ResearchId.valueOf(BitResearchSet.DENSE_LIMIT + 10)));
+            Assertions.assertFalse(set.add(ResearchId.valueOf(-5)));
+            Assertions.assertTrue(set.contains(ResearchId.valueOf(-5)));
+            Assertions.assertTrue(set.contains(ResearchId.valueOf(BitResearchSet.DENSE_LIMIT + 10)));
+            Assertions.assertFalse(set.contains(ResearchId.valueOf(BitResearchSet.DENSE_LIMIT + 11)));
+            Assertions.assertEquals(2, set.size());
+        }
+
+        @Test
+        public void highIdWithoutBitmap() {
+            ResearchSet set = ResearchSet.bitSet();
+            set.add(ResearchId.valueOf(1));
+            set.add(ResearchId.valueOf(65_000));
+            Assertions.assertTrue(set.footprint() < 128, "Footprint " + set.footprint());
+            Assertions.assertTrue(set.contains(ResearchId.valueOf(65_000)));
+            Assertions.assertEquals(1L << (65_000 & 63), set.word(65_000 >>> 6));
+            Assertions.assertEquals(2, set.size());
+        }
+
+        @Test
+        public void bitmapGrownWhenDense() {
+            ResearchSet set = ResearchSet.bitSet();
+            set.add(ResearchId.valueOf(65_000));
+            for (int i = 0; i < 300; i++) {
+                set.add(ResearchId.valueOf(i));
+            }
+            Assertions.assertEquals(301, set.size());
+            Assertions.assertEquals(-1L, set.word(0));
+            Assertions.assertTrue(set.contains(ResearchId.valueOf(299)));
+            Assertions.assertTrue(set.footprint() < 300 * Integer.BYTES);
+            Assertions.assertEquals(301, set.asSet().size());
+        }
+
+        @Test
+        public void addAllHighId() {
+            BitResearchSet set = new BitResearchSet();
+            set.addAll(new int[]{3, 65_000, 3, -2});
+            Assertions.assertEquals(Set.of(ResearchId.valueOf(3), ResearchId.valueOf(65_000), ResearchId.valueOf(-2)), set.asSet());
+            Assertions.assertTrue(set.footprint() < 128, "Footprint " + set.footprint());
+        }
+
+        @Test
+        public void asSet() {
+            ResearchSet set = ResearchSet.bitSet();
+            set.add(ResearchId.valueOf(1));
+            set.add(ResearchId.valueOf(64));
+            set.add(ResearchId.valueOf(200));
+            set.add(ResearchId.valueOf(-1));
+            Assertions.assertEquals(Set.of(ResearchId.valueOf(1), ResearchId.valueOf(64), ResearchId.valueOf(200), ResearchId.valueOf(-1)), set.asSet());
+        }
+
+        @Test
+        public void snapshot() {
+            ResearchSet set = ResearchSet.bitSet();
+            set.add(ResearchId.valueOf(1));
+            set.add(ResearchId.valueOf(-1));
+            Set<ResearchId> snapshot = set.snapshot();
+            set.add(ResearchId.valueOf(2));
+            set.add(ResearchId.valueOf(-2));
+            Assertions.assertEquals(Set.of(ResearchId.valueOf(1), ResearchId.valueOf(-1)), snapshot);
+            Assertions.assertFalse(snapshot.contains(ResearchId.valueOf(2)));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.add(ResearchId.valueOf(3)));
+        }
+
+        @Test
+        public void asSetUnmodifiable() {
+            ResearchSet set = ResearchSet.bitSet();
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> set.asSet().add(ResearchId.valueOf(1)));
+        }
+    }
+
+    @Nested
+    public class HashSet {
+
+        @Test
+        public void add() {
+            ResearchSet set = ResearchSet.hashSet();
+            Assertions.assertTrue(set.add(ResearchId.valueOf(3)));
+            Assertions.assertFalse(set.add(ResearchId.valueOf(3)));
+            Assertions.assertTrue(set.contains(ResearchId.valueOf(3)));
+            Assertions.assertEquals(Set.of(ResearchId.valueOf(3)), set.asSet());
+        }
+
+        @Test
+        public void prerequisitesProbedOnce() {
+            ResearchSet done = ResearchSet.hashSet();
+            done.add(ResearchId.valueOf(1));
+            done.add(ResearchId.valueOf(2));
+            AtomicInteger probes = new AtomicInteger();
+            ResearchSet counting = new ResearchSet() {
+
+                @Override
+                public boolean add(ResearchId research) {
+                    return done.add(research);
+                }
+
+                @Override
+                public boolean contains(ResearchId research) {
+                    probes.incrementAndGet();
+                    return done.contains(research);
+                }
+
+                @Override
+                public int size() {
+                    return done.size();
+                }
+
+                @Override
+                public Set<ResearchId> asSet() {
+                    return done.asSet();
+                }
+
+                @Override
+                public Set<ResearchId> snapshot() {
+                    return done.snapshot();
+                }
+
+                @Override
+                public long footprint() {
+                    return done.footprint();
+                }
+            };
+            Research research = Research.create(ResearchId.valueOf(3), 1, BonusId.valueOf(1), List.of(ResearchId.valueOf(1), ResearchId.valueOf(2)));
+            Assertions.assertTrue(research.prerequisitesDone(counting));
+            Assertions.assertEquals(2, probes.get());
+        }
+
+        @Test
+        public void snapshot() {
+            ResearchSet set = ResearchSet.hashSet();
+            set.add(ResearchId.valueOf(3));
+            Set<ResearchId> snapshot = set.snapshot();
+            set.add(ResearchId.valueOf(4));
+            Assertions.assertEquals(Set.of(ResearchId.valueOf(3)), snapshot);
+        }
+    }
+}
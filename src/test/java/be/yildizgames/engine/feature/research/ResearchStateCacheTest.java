@@ -0,0 +1,155 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research;
+
+import be.yildizgames.common.model.BonusId;
+import be.yildizgames.common.model.PlayerId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class ResearchStateCacheTest {
+
+    private static final ResearchId ROOT = ResearchId.valueOf(110);
+
+    private static final ResearchId CHILD = ResearchId.valueOf(111);
+
+    private static final PlayerId PLAYER = PlayerId.valueOf(110);
+
+    private static ResearchManager manager() {
+        return ResearchManager.builder().catalog(ResearchCatalog.builder()
+                .add(Research.create(ROOT, 10, BonusId.valueOf(1), List.of()))
+                .add(Research.create(CHILD, 10, BonusId.valueOf(1), List.of(ROOT)))
+                .build()).build();
+    }
+
+    @Nested
+    public class GetResearchState {
+
+        @Test
+        public void cached() {
+            ResearchStateCache cache = ResearchStateCache.create(manager());
+            Assertions.assertEquals(ResearchManager.ResearchState.AVAILABLE, cache.getResearchState(PLAYER, ROOT));
+            Assertions.assertEquals(ResearchManager.ResearchState.UNAVAILABLE, cache.getResearchState(PLAYER, CHILD));
+            Assertions.assertEquals(1, cache.getMisses());
+            Assertions.assertEquals(1, cache.getHits());
+        }
+
+        @Test
+        public void invalidatedOnCompletion() {
+            ResearchManager manager = manager();
+            ResearchStateCache cache = ResearchStateCache.create(manager);
+            cache.getResearchState(PLAYER, CHILD);
+            manager.addResearch(ROOT, PLAYER);
+            Assertions.assertEquals(1, cache.getInvalidations());
+            Assertions.assertEquals(ResearchManager.ResearchState.DONE, cache.getResearchState(PLAYER, ROOT));
+            Assertions.assertEquals(ResearchManager.ResearchState.AVAILABLE, cache.getResearchState(PLAYER, CHILD));
+            Assertions.assertEquals(2, cache.getMisses());
+            Assertions.assertEquals(1, cache.getHits());
+        }
+
+        @Test
+        public void otherPlayerKept() {
+            ResearchManager manager = manager();
+            ResearchStateCache cache = ResearchStateCache.create(manager);
+            cache.getResearchState(PLAYER, ROOT);
+            manager.addResearch(ROOT, PlayerId.valueOf(111));
+            cache.getResearchState(PLAYER, ROOT);
+            Assertions.assertEquals(1, cache.getMisses());
+            Assertions.assertEquals(1, cache.getHits());
+            Assertions.assertEquals(0, cache.getInvalidations());
+        }
+
+        @Test
+        public void catalogChanged() {
+            ResearchManager manager = manager();
+            ResearchStateCache cache = ResearchStateCache.create(manager);
+            cache.getResearchState(PLAYER, CHILD);
+            manager.setCatalog(ResearchCatalog.builder().add(Research.create(CHILD, 10, BonusId.valueOf(1), List.of())).build());
+            Assertions.assertEquals(ResearchManager.ResearchState.AVAILABLE, cache.getResearchState(PLAYER, CHILD));
+            Assertions.assertEquals(2, cache.getMisses());
+        }
+
+        @Test
+        public void restoreInvalidated() {
+            ResearchManager manager = manager();
+            ResearchStateCache cache = ResearchStateCache.create(manager);
+            cache.getResearchState(PLAYER, ROOT);
+            manager.restoreResearches(PLAYER, List.of(ROOT));
+            Assertions.assertEquals(ResearchManager.ResearchState.DONE, cache.getResearchState(PLAYER, ROOT));
+        }
+
+        @Test
+        public void loadAllInvalidated() {
+            ResearchManager manager = manager();
+            ResearchStateCache cache = ResearchStateCache.create(manager);
+            cache.getResearchState(PLAYER, ROOT);
+            manager.loadAll(Map.of(PLAYER, new int[]{ROOT.value}), ForkJoinPool.commonPool());
+            Assertions.assertEquals(ResearchManager.ResearchState.DONE, cache.getResearchState(PLAYER, ROOT));
+        }
+
+        @Test
+        public void notInCatalog() {
+            ResearchStateCache cache = ResearchStateCache.create(manager());
+            Assertions.assertEquals(ResearchManager.ResearchState.UNAVAILABLE, cache.getResearchState(PLAYER, ResearchId.valueOf(112)));
+            Assertions.assertEquals(ResearchManager.ResearchState.UNAVAILABLE, cache.getResearchState(PLAYER, ResearchId.valueOf(1_000_000)));
+        }
+    }
+
+    @Nested
+    public class Bound {
+
+        @Test
+        public void maxPlayers() {
+            ResearchStateCache cache = ResearchStateCache.create(manager(), 2);
+            for (int i = 0; i < 10; i++) {
+                cache.getResearchState(PlayerId.valueOf(120 + i), ROOT);
+            }
+            Assertions.assertTrue(cache.getCachedPlayers() <= 2);
+            Assertions.assertEquals(10, cache.getMisses());
+            Assertions.assertEquals(0, cache.getHits());
+        }
+
+        @Test
+        public void unloadedPlayerDropped() {
+            ResearchManager manager = ResearchManager.builder()
+                    .catalog(manager().getCatalog())
+                    .eviction(p -> List.of(), EvictionPolicy.maxPlayers(2))
+                    .build();
+            ResearchStateCache cache = ResearchStateCache.create(manager);
+            for (int i = 0; i < 5; i++) {
+                cache.getResearchState(PlayerId.valueOf(130 + i), ROOT);
+            }
+            Assertions.assertTrue(cache.getCachedPlayers() <= 2);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.persistence;
+
+import be.yildizgames.common.model.BonusId;
+import be.yildizgames.engine.feature.research.Research;
+import be.yildizgames.engine.feature.research.ResearchCatalog;
+import be.yildizgames.engine.feature.research.ResearchId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class ResearchCatalogFileTest {
+
+    private static final String DEFINITIONS = "# id;price;bonus;prerequisites\n"
+            + "1;10.5;3;\n"
+            + "2;20;4;1\n"
+            + "\n"
+            + "100000;30;5;1, 2\n";
+
+    @Nested
+    public class ReadWrite {
+
+        @Test
+        public void roundTrip(@TempDir Path directory) throws IOException {
+            Path file = directory.resolve("catalog.bin");
+            ResearchCatalog written = ResearchCatalogCompiler.parse(new StringReader(DEFINITIONS));
+            ResearchCatalogFile.write(written, file);
+            ResearchCatalog read = ResearchCatalogFile.read(file);
+            Assertions.assertEquals(3, read.size());
+            Research research = read.get(ResearchId.valueOf(100_000));
+            Assertions.assertEquals(30f, research.getPrice());
+            Assertions.assertEquals(BonusId.valueOf(5), research.getBonus());
+            Assertions.assertEquals(Set.of(ResearchId.valueOf(1), ResearchId.valueOf(2)), research.getPrerequisites());
+            Assertions.assertEquals(10.5f, read.get(ResearchId.valueOf(1)).getPrice());
+            Assertions.assertNull(Research.get(ResearchId.valueOf(100_000)));
+        }
+
+        @Test
+        public void withoutBonus(@TempDir Path directory) throws IOException {
+            Path file = directory.resolve("catalog.bin");
+            ResearchCatalog written = ResearchCatalog.builder()
+                    .add(Research.create(ResearchId.valueOf(1), 1, null, List.of()))
+                    .add(Research.create(ResearchId.valueOf(2), 1, BonusId.valueOf(2), List.of(ResearchId.valueOf(1))))
+                    .build();
+            ResearchCatalogFile.write(written, file);
+            ResearchCatalog read = ResearchCatalogFile.read(file);
+            Assertions.assertNull(read.get(ResearchId.valueOf(1)).getBonus());
+            Assertions.assertEquals(BonusId.valueOf(2), read.get(ResearchId.valueOf(2)).getBonus());
+        }
+
+        @Test
+        public void corrupted(@TempDir Path directory) throws IOException {
+            Path file = directory.resolve("catalog.bin");
+            ResearchCatalogFile.write(ResearchCatalogCompiler.parse(new StringReader(DEFINITIONS)), file);
+            byte[] content = Files.readAllBytes(file);
+            content[content.length - 1]++;
+            Files.write(file, content);
+            Assertions.assertThrows(IOException.class, () -> ResearchCatalogFile.read(file));
+        }
+
+        @Test
+        public void notACatalog(@TempDir Path directory) throws IOException {
+            Path file = directory.resolve("catalog.bin");
+            Files.write(file, new byte[32]);
+            Assertions.assertThrows(IOException.class, () -> ResearchCatalogFile.read(file));
+        }
+    }
+
+    @Nested
+    public class Compile {
+
+        @Test
+        public void compileFile(@TempDir Path directory) throws IOException {
+            Path definitions = directory.resolve("researches.txt");
+            Files.writeString(definitions, DEFINITIONS);
+            Path file = directory.resolve("catalog.bin");
+            Assertions.assertEquals(3, ResearchCatalogCompiler.compile(definitions, file).size());
+            Assertions.assertEquals(3, ResearchCatalogFile.read(file).size());
+        }
+
+        @Test
+        public void invalidLine() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ResearchCatalogCompiler.parse(new StringReader("1;a;3;\n")));
+        }
+
+        @Test
+        public void withoutBonus() throws IOException {
+            Assertions.assertNull(ResearchCatalogCompiler.parse(new StringReader("1;1;;\n")).get(ResearchId.valueOf(1)).getBonus());
+        }
+
+        @Test
+        public void duplicateId() {
+            IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> ResearchCatalogCompiler.parse(new StringReader("1;1;1;\n2;1;1;\n1;2;2;\n")));
+            Assertions.assertTrue(e.getMessage().startsWith("Line 3:"));
+        }
+
+        @Test
+        public void cycle() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ResearchCatalogCompiler.parse(new StringReader("1;1;1;2\n2;1;1;1\n")));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.persistence;
+
+import be.yildizgames.common.model.PlayerId;
+import be.yildizgames.engine.feature.research.EvictionPolicy;
+import be.yildizgames.engine.feature.research.ResearchId;
+import be.yildizgames.engine.feature.research.ResearchManager;
+import be.yildizgames.engine.feature.research.ResearchSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class ResearchJournalTest {
+
+    @Nested
+    public class Replay {
+
+        @Test
+        public void journalOnly(@TempDir Path directory) throws IOException {
+            try (ResearchJournal journal = ResearchJournal.open(directory, SyncPolicy.everyBatch())) {
+                ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+                manager.addListener(journal);
+                manager.addResearch(ResearchId.valueOf(1), PlayerId.valueOf(1));
+                manager.addResearches(PlayerId.valueOf(2), List.of(ResearchId.valueOf(2), ResearchId.valueOf(3)));
+                Assertions.assertEquals(3, journal.getRecordCount());
+            }
+            try (ResearchJournal journal = ResearchJournal.open(directory, SyncPolicy.everyBatch())) {
+                ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+                journal.replay(manager);
+                Assertions.assertEquals(Set.of(ResearchId.valueOf(1)), manager.getResearchList(PlayerId.valueOf(1)));
+                Assertions.assertEquals(Set.of(ResearchId.valueOf(2), ResearchId.valueOf(3)), manager.getResearchList(PlayerId.valueOf(2)));
+            }
+        }
+
+        @Test
+        public void snapshotAndTail(@TempDir Path directory) throws IOException {
+            try (ResearchJournal journal = ResearchJournal.open(directory, SyncPolicy.every(Duration.ofSeconds(1)))) {
+                ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+                manager.addListener(journal);
+                manager.addResearch(ResearchId.valueOf(1), PlayerId.valueOf(1));
+                manager.addResearch(ResearchId.valueOf(2), PlayerId.valueOf(1));
+                journal.compact(manager);
+                Assertions.assertEquals(0, journal.getRecordCount());
+                manager.addResearch(ResearchId.valueOf(3), PlayerId.valueOf(2));
+            }
+            try (ResearchJournal journal = ResearchJournal.open(directory, SyncPolicy.everyBatch())) {
+                ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+                journal.replay(manager);
+                Assertions.assertEquals(Set.of(ResearchId.valueOf(1), ResearchId.valueOf(2)), manager.getResearchList(PlayerId.valueOf(1)));
+                Assertions.assertEquals(Set.of(ResearchId.valueOf(3)), manager.getResearchList(PlayerId.valueOf(2)));
+            }
+        }
+
+        @Test
+        public void evictingManager(@TempDir Path directory) throws IOException {
+            try (ResearchJournal journal = ResearchJournal.open(directory, SyncPolicy.everyBatch())) {
+                ResearchManager manager = ResearchManager.create(ResearchSet::bitSet, p -> List.of(), EvictionPolicy.maxPlayers(2));
+                manager.addListener(journal);
+                for (int p = 1; p <= 5; p++) {
+                    manager.addResearch(ResearchId.valueOf(p), PlayerId.valueOf(p));
+                }
+                Assertions.assertThrows(IllegalStateException.class, () -> journal.compact(manager));
+                Assertions.assertEquals(5, journal.getRecordCount());
+            }
+            try (ResearchJournal journal = ResearchJournal.open(directory, SyncPolicy.everyBatch())) {
+                ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+                journal.replay(manager);
+                for (int p = 1; p <= 5; p++) {
+                    Assertions.assertEquals(Set.of(ResearchId.valueOf(p)), manager.getResearchList(PlayerId.valueOf(p)));
+                }
+            }
+        }
+
+        @Test
+        public void listenersNotNotified(@TempDir Path directory) throws IOException {
+            try (ResearchJournal journal = ResearchJournal.open(directory, SyncPolicy.everyBatch())) {
+                journal.researchCompleted(ResearchId.valueOf(1), PlayerId.valueOf(1));
+                ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+                manager.addListener((r, p) -> Assertions.fail("Replay must not notify."));
+                journal.replay(manager);
+                Assertions.assertTrue(manager.hasResearch(PlayerId.valueOf(1), ResearchId.valueOf(1)));
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol;
+
+import be.yildizgames.common.model.PlayerId;
+import be.yildizgames.engine.feature.research.ResearchId;
+import be.yildizgames.engine.feature.research.ResearchManager;
+import be.yildizgames.engine.feature.research.ResearchSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class ResearchDeltaTrackerTest {
+
+    private static ResearchId id(int value) {
+        return ResearchId.valueOf(value);
+    }
+
+    @Nested
+    public class ChangesSince {
+
+        @Test
+        public void firstSyncIsFull() {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            ResearchDeltaTracker tracker = ResearchDeltaTracker.create(manager, 4);
+            manager.addListener(tracker);
+            PlayerId player = PlayerId.valueOf(1);
+            manager.restoreResearches(player, List.of(id(1)));
+            manager.addResearch(id(2), player);
+            ResearchReplica replica = ResearchReplica.create();
+            ResearchDelta delta = tracker.changesSince(player, replica.getEpoch(), replica.getRevision());
+            Assertions.assertTrue(delta.full);
+            Assertions.assertTrue(replica.apply(delta));
+            Assertions.assertEquals(Set.of(id(1), id(2)), replica.getResearches());
+            Assertions.assertEquals(1, replica.getRevision());
+        }
+
+        @Test
+        public void incremental() {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            ResearchDeltaTracker tracker = ResearchDeltaTracker.create(manager, 4);
+            manager.addListener(tracker);
+            PlayerId player = PlayerId.valueOf(1);
+            ResearchReplica replica = ResearchReplica.create();
+            replica.apply(tracker.changesSince(player, replica.getEpoch(), replica.getRevision()));
+            manager.addResearch(id(1), player);
+            manager.addResearches(player, List.of(id(2), id(3)));
+            ResearchDelta delta = tracker.changesSince(player, replica.getEpoch(), replica.getRevision());
+            Assertions.assertFalse(delta.full);
+            Assertions.assertEquals(List.of(id(1), id(2), id(3)), delta.researches);
+            Assertions.assertTrue(replica.apply(delta));
+            Assertions.assertEquals(3, replica.getRevision());
+            Assertions.assertEquals(Set.of(id(1), id(2), id(3)), replica.getResearches());
+        }
+
+        @Test
+        public void gapTooLarge() {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            ResearchDeltaTracker tracker = ResearchDeltaTracker.create(manager, 2);
+            manager.addListener(tracker);
+            PlayerId player = PlayerId.valueOf(1);
+            ResearchReplica replica = ResearchReplica.create();
+            replica.apply(tracker.changesSince(player, replica.getEpoch(), replica.getRevision()));
+            for (int i = 0; i < 3; i++) {
+                manager.addResearch(id(i), player);
+            }
+            ResearchDelta delta = tracker.changesSince(player, replica.getEpoch(), replica.getRevision());
+            Assertions.assertTrue(delta.full);
+            Assertions.assertEquals(3, delta.toRevision);
+        }
+
+        @Test
+        public void forgotten() {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            ResearchDeltaTracker tracker = ResearchDeltaTracker.create(manager, 4);
+            manager.addListener(tracker);
+            PlayerId player = PlayerId.valueOf(1);
+            ResearchReplica replica = ResearchReplica.create();
+            replica.apply(tracker.changesSince(player, replica.getEpoch(), replica.getRevision()));
+            manager.addResearch(id(1), player);
+            replica.apply(tracker.changesSince(player, replica.getEpoch(), replica.getRevision()));
+            tracker.forget(player);
+            Assertions.assertEquals(0, tracker.getTrackedPlayers());
+            manager.addResearch(id(2), PlayerId.valueOf(2));
+            manager.addResearch(id(3), player);
+            ResearchDelta delta = tracker.changesSince(player, replica.getEpoch(), replica.getRevision());
+            Assertions.assertTrue(delta.full);
+            Assertions.assertTrue(replica.apply(delta));
+            Assertions.assertEquals(Set.of(id(1), id(3)), replica.getResearches());
+        }
+
+        @Test
+        public void otherEpoch() {
+            ResearchManager manager = ResearchManager.create(ResearchSet::bitSet);
+            ResearchDeltaTracker tracker = ResearchDeltaTracker.create(manager, 2);
+            Assertions.assertTrue(tracker.changesSince(PlayerId.valueOf(1), tracker.getEpoch() + 1, 0).full);
+        }
+    }
+
+    @Nested
+    public class Apply {
+
+        @Test
+        public void revisionMismatch() {
+            ResearchReplica replica = ResearchReplica.create();
+            Assertions.assertFalse(replica.apply(new ResearchDelta(0, 3, 4, false, List.of(id(1)))));
+            Assertions.assertTrue(replica.getResearches().isEmpty());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol.mapper;
+
+import be.yildizgames.engine.feature.research.ResearchId;
+import be.yildizgames.engine.feature.research.protocol.ResearchDelta;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class ResearchDeltaMapperTest extends BaseMapperTest<ResearchDelta> {
+
+    public ResearchDeltaMapperTest() {
+        super(ResearchDeltaMapper.getInstance(), new ResearchDelta(-5, 2, 4, false, List.of(ResearchId.valueOf(3), ResearchId.valueOf(7))));
+    }
+
+    @Test
+    public void emptyDelta() {
+        ResearchDelta upToDate = new ResearchDelta(1, 3, 3, false, List.of());
+        Assertions.assertEquals(upToDate, ResearchDeltaMapper.getInstance().from(ResearchDeltaMapper.getInstance().to(upToDate)));
+        ResearchDelta fullEmpty = new ResearchDelta(1, -1, 0, true, List.of());
+        Assertions.assertEquals(fullEmpty, ResearchDeltaMapper.getInstance().from(ResearchDeltaMapper.getInstance().to(fullEmpty)));
+    }
+}
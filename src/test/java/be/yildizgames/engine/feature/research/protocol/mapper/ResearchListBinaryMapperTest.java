@@ -0,0 +1,125 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol.mapper;
+
+import be.yildizgames.engine.feature.research.ResearchId;
+import be.yildizgames.engine.feature.research.protocol.ResearchDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class ResearchListBinaryMapperTest {
+
+    private static List<ResearchId> roundTrip(List<ResearchId> ids) {
+        ResearchListBinaryMapper mapper = ResearchListBinaryMapper.getInstance();
+        ByteBuffer buffer = ByteBuffer.allocate(mapper.encodedSize(ids));
+        mapper.to(ids, buffer);
+        Assertions.assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        List<ResearchId> result = mapper.from(buffer);
+        Assertions.assertFalse(buffer.hasRemaining());
+        return result;
+    }
+
+    private static List<ResearchId> ids(int... values) {
+        List<ResearchId> result = new ArrayList<>();
+        for (int value : values) {
+            result.add(ResearchId.valueOf(value));
+        }
+        return result;
+    }
+
+    @Nested
+    public class HappyFlow {
+
+        @Test
+        public void empty() {
+            Assertions.assertEquals(Collections.emptyList(), roundTrip(Collections.emptyList()));
+        }
+
+        @Test
+        public void sparse() {
+            Assertions.assertEquals(ids(-500, 3, 70_000, 1_000_000), roundTrip(ids(70_000, 3, 1_000_000, -500)));
+        }
+
+        @Test
+        public void dense() {
+            List<ResearchId> ids = new ArrayList<>();
+            for (int i = 100; i < 400; i++) {
+                ids.add(ResearchId.valueOf(i));
+            }
+            Assertions.assertEquals(ids, roundTrip(ids));
+            Assertions.assertTrue(ResearchListBinaryMapper.getInstance().encodedSize(ids) < 60);
+        }
+
+        @Test
+        public void duplicates() {
+            Assertions.assertEquals(ids(1, 2), roundTrip(ids(2, 1, 2)));
+        }
+
+        @Test
+        public void dto() {
+            ResearchDtoBinaryMapper mapper = ResearchDtoBinaryMapper.getInstance();
+            ResearchDto dto = new ResearchDto(ResearchId.valueOf(-42));
+            ByteBuffer buffer = ByteBuffer.allocate(mapper.encodedSize(dto));
+            mapper.to(dto, buffer);
+            buffer.flip();
+            Assertions.assertEquals(dto, mapper.from(buffer));
+        }
+    }
+
+    @Nested
+    public class Invalid {
+
+        @Test
+        public void truncated() {
+            ResearchListBinaryMapper mapper = ResearchListBinaryMapper.getInstance();
+            List<ResearchId> ids = ids(1, 2000, 4000);
+            ByteBuffer buffer = ByteBuffer.allocate(mapper.encodedSize(ids));
+            mapper.to(ids, buffer);
+            buffer.flip();
+            buffer.limit(buffer.limit() - 1);
+            Assertions.assertThrows(ResearchMappingException.class, () -> mapper.from(buffer));
+        }
+
+        @Test
+        public void unknownLayout() {
+            Assertions.assertThrows(ResearchMappingException.class, () -> ResearchListBinaryMapper.getInstance().from(ByteBuffer.wrap(new byte[]{5})));
+        }
+
+        @Test
+        public void emptyDto() {
+            Assertions.assertThrows(ResearchMappingException.class, () -> ResearchDtoBinaryMapper.getInstance().from(ByteBuffer.allocate(0)));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Grégory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.engine.feature.research.protocol.mapper;
+
+import be.yildizgames.engine.feature.research.ResearchId;
+import be.yildizgames.engine.feature.research.protocol.ResearchDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Grégory Van den Borre
+ */
+public class ResearchStreamDecoderTest {
+
+    private static List<Integer> decode(CharSequence s) {
+        List<Integer> result = new ArrayList<>();
+        ResearchStreamDecoder.getInstance().decodeList(s, (int v) -> result.add(v));
+        return result;
+    }
+
+    @Nested
+    public class DecodeList {
+
+        @Test
+        public void happyFlow() {
+            Assertions.assertEquals(List.of(1, -2, 300, 2147483647), decode("1,-2,+300,2147483647"));
+        }
+
+        @Test
+        public void empty() {
+            Assertions.assertEquals(List.of(), decode(""));
+        }
+
+        @Test
+        public void trailingSeparator() {
+            Assertions.assertEquals(List.of(1, 2), decode("1,2,,"));
+        }
+
+        @Test
+        public void range() {
+            List<Integer> result = new ArrayList<>();
+            Assertions.assertEquals(2, ResearchStreamDecoder.getInstance().decodeList("x5,6y", 1, 4, (int v) -> result.add(v)));
+            Assertions.assertEquals(List.of(5, 6), result);
+        }
+
+        @Test
+        public void researchIds() {
+            List<ResearchId> result = new ArrayList<>();
+            ResearchStreamDecoder.getInstance().decodeResearches("4,5", result::add);
+            Assertions.assertEquals(List.of(ResearchId.valueOf(4), ResearchId.valueOf(5)), result);
+        }
+
+        @Test
+        public void byteBuffer() {
+            ByteBuffer buffer = ByteBuffer.wrap("7,8,9".getBytes(StandardCharsets.US_ASCII));
+            List<Integer> result = new ArrayList<>();
+            Assertions.assertEquals(3, ResearchStreamDecoder.getInstance().decodeList(buffer, (int v) -> result.add(v)));
+            Assertions.assertEquals(List.of(7, 8, 9), result);
+            Assertions.assertFalse(buffer.hasRemaining());
+        }
+
+        @Test
+        public void emptyElement() {
+            Assertions.assertThrows(ResearchMappingException.class, () -> decode("1,,2"));
+        }
+
+        @Test
+        public void notANumber() {
+            Assertions.assertThrows(ResearchMappingException.class, () -> decode("1,a"));
+        }
+
+        @Test
+        public void onlySign() {
+            Assertions.assertThrows(ResearchMappingException.class, () -> decode("-"));
+        }
+
+        @Test
+        public void overflow() {
+            Assertions.assertThrows(ResearchMappingException.class, () -> decode("2147483648"));
+        }
+    }
+
+    @Nested
+    public class DecodeDto {
+
+        @Test
+        public void happyFlow() {
+            Assertions.assertEquals(new ResearchDto(ResearchId.valueOf(3)), ResearchStreamDecoder.getInstance().decodeDto("3@@5"));
+        }
+
+        @Test
+        public void empty() {
+            Assertions.assertThrows(ResearchMappingException.class, () -> ResearchStreamDecoder.getInstance().decodeDto("@@5"));
+        }
+    }
+}